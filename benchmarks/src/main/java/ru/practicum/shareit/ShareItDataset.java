@@ -0,0 +1,110 @@
+package ru.practicum.shareit;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The server application on an in-memory H2 database with the ci profile, seeded once per benchmark run.
+ * One owner has {@value #OWNER_ITEMS} items with a past and a future booking and two comments each,
+ * other owners add {@value #OTHER_ITEMS} items; every tenth item mentions {@value #SEARCH_TEXT}.
+ */
+@State(Scope.Benchmark)
+public class ShareItDataset {
+    public static final String SEARCH_TEXT = "drill";
+    private static final int OWNER_ITEMS = 200;
+    private static final int OTHER_ITEMS = 2000;
+    private static final int OTHER_OWNERS = 50;
+
+    private ConfigurableApplicationContext context;
+    private long ownerId;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("ci")
+                .properties("spring.main.banner-mode=off", "logging.level.root=WARN",
+                        "logging.level.ru.practicum.shareit=WARN")
+                .run();
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public long getOwnerId() {
+        return ownerId;
+    }
+
+    private void seed() {
+        UserRepository userRepository = getBean(UserRepository.class);
+        ItemRepository itemRepository = getBean(ItemRepository.class);
+        BookingRepository bookingRepository = getBean(BookingRepository.class);
+        CommentRepository commentRepository = getBean(CommentRepository.class);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        User owner = userRepository.save(new User(null, "Owner", "owner@mail.ru"));
+        User booker = userRepository.save(new User(null, "Booker", "booker@mail.ru"));
+        List<User> otherOwners = new ArrayList<>(OTHER_OWNERS);
+        for (int i = 0; i < OTHER_OWNERS; i++) {
+            otherOwners.add(new User(null, "Owner " + i, "owner" + i + "@mail.ru"));
+        }
+        otherOwners = userRepository.saveAll(otherOwners);
+        ownerId = owner.getId();
+
+        List<Item> items = new ArrayList<>(OWNER_ITEMS + OTHER_ITEMS);
+        for (int i = 0; i < OWNER_ITEMS + OTHER_ITEMS; i++) {
+            User itemOwner = i < OWNER_ITEMS ? owner : otherOwners.get(i % OTHER_OWNERS);
+            String description = i % 10 == 0 ? "Cordless " + SEARCH_TEXT + " number " + i : "Item number " + i;
+            items.add(new Item(null, "Item " + i, description, i % 7 != 0, itemOwner, null, null));
+        }
+        items = itemRepository.saveAll(items);
+
+        List<Booking> bookings = new ArrayList<>(OWNER_ITEMS * 2);
+        List<Comment> comments = new ArrayList<>(OWNER_ITEMS * 2);
+        for (Item item : items.subList(0, OWNER_ITEMS)) {
+            bookings.add(booking(item, booker, now.minusDays(3), BookingStatus.APPROVED));
+            bookings.add(booking(item, booker, now.plusDays(3), BookingStatus.WAITING));
+            comments.add(new Comment(null, "Works well", item, booker, now.minusDays(1)));
+            comments.add(new Comment(null, "Would book again", item, booker, now.minusHours(1)));
+        }
+        bookingRepository.saveAll(bookings);
+        commentRepository.saveAll(comments);
+    }
+
+    private static Booking booking(Item item, User booker, LocalDateTime start, BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setStart(start);
+        booking.setEnd(start.plusDays(1));
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(status);
+        return booking;
+    }
+}
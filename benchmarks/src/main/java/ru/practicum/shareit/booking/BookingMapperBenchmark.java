@@ -0,0 +1,64 @@
+package ru.practicum.shareit.booking;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.ResponseBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps a page of bookings to the response of the booking list endpoints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingMapperBenchmark {
+    @Param({"10", "100"})
+    private int size;
+
+    private List<Booking> bookings;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        User owner = new User(1L, "Owner", "owner@mail.ru");
+        User booker = new User(2L, "Booker", "booker@mail.ru");
+        bookings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Item item = new Item((long) i % 10, "Item " + i % 10, "Benchmark item", true, owner, null, 0L);
+            Booking booking = new Booking();
+            booking.setId(i);
+            booking.setStart(start.plusDays(i));
+            booking.setEnd(start.plusDays(i).plusHours(2));
+            booking.setItem(item);
+            booking.setBooker(booker);
+            booking.setStatus(BookingStatus.APPROVED);
+            bookings.add(booking);
+        }
+    }
+
+    @Benchmark
+    public List<ResponseBooking> toResponseBookingList() {
+        return BookingMapper.toResponseBookingList(bookings);
+    }
+}
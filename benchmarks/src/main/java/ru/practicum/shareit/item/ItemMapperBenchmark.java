@@ -0,0 +1,69 @@
+package ru.practicum.shareit.item;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemWithBookingsAndComments;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps an item with its last and next booking and its comments, once per item of the owner's item list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemMapperBenchmark {
+    @Param({"0", "10"})
+    private int comments;
+
+    private Item item;
+    private BookingDto last;
+    private BookingDto next;
+    private List<CommentDto> commentDtos;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.of(2030, 1, 1, 10, 0);
+        item = new Item(1L, "Item", "Benchmark item", true, new User(1L, "Owner", "owner@mail.ru"), null, 0L);
+        last = bookingDto(1L, now.minusDays(2), 2L);
+        next = bookingDto(2L, now.plusDays(1), 3L);
+        commentDtos = new ArrayList<>(comments);
+        for (int i = 0; i < comments; i++) {
+            commentDtos.add(new CommentDto((long) i, "Comment " + i, "Booker", now.minusHours(i)));
+        }
+    }
+
+    @Benchmark
+    public ItemWithBookingsAndComments toItemWithBookingsAndCommentsDto() {
+        return ItemMapper.toItemWithBookingsAndCommentsDto(item, last, next, commentDtos);
+    }
+
+    private static BookingDto bookingDto(long id, LocalDateTime start, long bookerId) {
+        BookingDto booking = new BookingDto();
+        booking.setId(id);
+        booking.setStart(start);
+        booking.setEnd(start.plusHours(2));
+        booking.setBookerId(bookerId);
+        return booking;
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.item;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.ShareItDataset;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
+import ru.practicum.shareit.item.dto.ItemWithBookingsAndComments;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The owner's item list through the transactional service: items, bookings summary and comments from H2.
+ * {@code getAllItemsOwner} reads the booking summaries from memory once the first call has loaded them;
+ * {@code getAllItemsOwnerCold} evicts them before every call, so each call also runs the batch booking query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemServiceBenchmark {
+    @Param({"10", "50"})
+    private int size;
+
+    @Benchmark
+    public List<ItemWithBookingsAndComments> getAllItemsOwner(ShareItDataset dataset) {
+        return dataset.getBean(ItemService.class).getAllItemsOwner(dataset.getOwnerId(), 0, size);
+    }
+
+    @Benchmark
+    public List<ItemWithBookingsAndComments> getAllItemsOwnerCold(ShareItDataset dataset, ColdSummary coldSummary) {
+        return dataset.getBean(ItemService.class).getAllItemsOwner(dataset.getOwnerId(), 0, size);
+    }
+
+    @State(Scope.Thread)
+    public static class ColdSummary {
+        private List<Long> itemIds;
+
+        @Setup(Level.Trial)
+        public void findItems(ShareItDataset dataset) {
+            itemIds = dataset.getBean(ItemRepository.class).findIdsByOwnerId(dataset.getOwnerId());
+        }
+
+        @Setup(Level.Invocation)
+        public void evict(ShareItDataset dataset) {
+            dataset.getBean(ItemBookingSummary.class).evict(itemIds);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Opt-in mode of the gateway and the server, {@code shareit.virtual-threads=true} or the {@code virtual-threads}
+ * profile, that runs Tomcat requests and Spring's task executor on virtual threads instead of fixed platform
+ * thread pools. Virtual threads need Java 21, while the project still compiles for Java 11 and its images run on it,
+ * so the executor is looked up at runtime. On an older JDK the mode logs a warning and runs on a pool of
+ * {@code server.tomcat.threads.max} platform threads, as many as Tomcat would have used.
+ * On the server concurrency against the database stays bounded by the connection pool; the gateway's calls to
+ * the server do not hold a thread either way, so there it mainly matters for request parsing and validation.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "shareit.virtual-threads", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService requestExecutor(@Value("${server.tomcat.threads.max:200}") int platformThreads) {
+        ExecutorService virtualThreads = newVirtualThreadPerTaskExecutor();
+        if (virtualThreads != null) {
+            log.info("Running requests and tasks on virtual threads");
+            return virtualThreads;
+        }
+        log.warn("Virtual threads need Java 21 or newer, running on {}: requests and tasks run on {} platform threads",
+                Runtime.version(), platformThreads);
+        return newPlatformThreadPool(platformThreads);
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> requestExecutorProtocolHandlerCustomizer(
+            ExecutorService requestExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(requestExecutor);
+    }
+
+    @Bean
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService requestExecutor) {
+        return new TaskExecutorAdapter(requestExecutor);
+    }
+
+    /**
+     * Returns {@code null} when the runtime has no virtual threads.
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads are not available on " + Runtime.version(), e);
+        }
+    }
+
+    static ExecutorService newPlatformThreadPool(int threads) {
+        AtomicInteger created = new AtomicInteger();
+        ThreadFactory threadFactory = task -> {
+            Thread thread = new Thread(task, "request-" + created.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(threads, threadFactory);
+    }
+}
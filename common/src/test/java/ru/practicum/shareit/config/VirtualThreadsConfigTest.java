@@ -0,0 +1,95 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class VirtualThreadsConfigTest {
+
+    @Test
+    public void requestExecutor_whenJava21_thenTasksRunOnVirtualThreads() throws Exception {
+        if (Runtime.version().feature() < 21) {
+            assertNull(VirtualThreadsConfig.newVirtualThreadPerTaskExecutor());
+            return;
+        }
+
+        ExecutorService executor = new VirtualThreadsConfig().requestExecutor(2);
+        try {
+            assertTrue(isVirtual(executor));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void requestExecutor_whenBeforeJava21_thenTasksRunOnBoundedPlatformPool() throws Exception {
+        if (Runtime.version().feature() >= 21) {
+            return;
+        }
+
+        ExecutorService executor = new VirtualThreadsConfig().requestExecutor(2);
+        try {
+            assertFalse(isVirtual(executor));
+            assertEquals(2, countThreads(executor, 10));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void newPlatformThreadPool_thenNoMoreThreadsThanAllowed() throws Exception {
+        ExecutorService executor = VirtualThreadsConfig.newPlatformThreadPool(3);
+        try {
+            assertEquals(3, countThreads(executor, 20));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static boolean isVirtual(ExecutorService executor) throws Exception {
+        Future<Boolean> virtual = executor.submit(() -> {
+            try {
+                return (Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread());
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        });
+        return virtual.get(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Runs tasks that wait for each other until all of the pool's threads are busy and returns how many threads
+     * ran them.
+     */
+    private static int countThreads(ExecutorService executor, int tasks) throws InterruptedException {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(tasks);
+        for (int i = 0; i < tasks; i++) {
+            executor.execute(() -> {
+                threads.add(Thread.currentThread().getName());
+                sleep();
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        return threads.size();
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(20);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
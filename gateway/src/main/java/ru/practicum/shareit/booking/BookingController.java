@@ -8,10 +8,14 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import reactor.core.publisher.Mono;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 
 @Controller
@@ -20,48 +24,64 @@ import javax.validation.constraints.PositiveOrZero;
 @Slf4j
 @Validated
 public class BookingController {
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final BookingClient bookingClient;
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
-                                              @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                              @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                    @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                    @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                    @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                    @RequestParam(name = "cursor", required = false) String cursor,
+                                                    @RequestParam(name = "total", defaultValue = "false") boolean total) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookings(userId, state, from, size);
+        log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}, total={}", stateParam, userId, from,
+                size, cursor, total);
+        return bookingClient.getBookings(userId, state, from, size, cursor, total);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getBookingsByItemOwner(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                         @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                                         @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                         @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getBookingsByItemOwner(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                               @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                               @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                               @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                               @RequestParam(name = "cursor", required = false) String cursor,
+                                                               @RequestParam(name = "total", defaultValue = "false") boolean total) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookingsByOwner(userId, state, from, size);
+        log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}, total={}", stateParam, userId, from,
+                size, cursor, total);
+        return bookingClient.getBookingsByOwner(userId, state, from, size, cursor, total);
     }
 
     @PostMapping
-    public ResponseEntity<Object> postBooking(@RequestHeader("X-Sharer-User-Id") long userId,
-                                              @RequestBody @Valid BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> postBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                    @RequestBody @Valid BookItemRequestDto requestDto) {
         log.info("Creating booking {}, userId={}", requestDto, userId);
         return bookingClient.bookItem(userId, requestDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> postBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                     @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                                     List<@Valid BookItemRequestDto> requestDtos) {
+        log.info("Creating {} bookings, userId={}", requestDtos.size(), userId);
+        return bookingClient.bookItems(userId, requestDtos);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
-                                             @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                   @PathVariable Long bookingId) {
         log.info("Get booking {}, userId={}", bookingId, userId);
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> updateBookingStatus(@RequestHeader(value = "X-Sharer-User-Id", required = true) Long userId,
-                                               @RequestParam("approved") Boolean isApproved,
-                                               @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<Object>> updateBookingStatus(@RequestHeader(value = "X-Sharer-User-Id", required = true) Long userId,
+                                                     @RequestParam("approved") Boolean isApproved,
+                                                     @PathVariable Long bookingId) {
         return bookingClient.updateBooking(userId, isApproved, bookingId);
     }
 }
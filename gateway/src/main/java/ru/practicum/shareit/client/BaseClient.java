@@ -1,121 +1,197 @@
 package ru.practicum.shareit.client;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
-import org.springframework.http.HttpEntity;
+import org.springframework.cloud.sleuth.Span;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.util.UriBuilderFactory;
+import reactor.core.publisher.Mono;
 
 public class BaseClient {
-    protected final RestTemplate rest;
-
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
-    }
-
-    protected ResponseEntity<Object> get(String path) {
+    private static final String HTTP2_STREAM_ID = "x-http2-stream-id";
+    // read by the http.client.requests metrics, which fall back to the expanded URI with ids in it
+    private static final String URI_TEMPLATE_ATTRIBUTE = WebClient.class.getName() + ".uriTemplate";
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+");
+
+    protected final WebClient webClient;
+    private final String baseUrl;
+    private final UriBuilderFactory uriBuilderFactory;
+    private final EtagCache etagCache;
+    private final InFlightRequests inFlightRequests;
+    private final ServerCallTracing tracing;
+
+    public BaseClient(String baseUrl, WebClient.Builder builder, EtagCache etagCache,
+                      InFlightRequests inFlightRequests, ServerCallTracing tracing) {
+        this.baseUrl = baseUrl;
+        this.uriBuilderFactory = new DefaultUriBuilderFactory(baseUrl);
+        this.webClient = builder.uriBuilderFactory(uriBuilderFactory).build();
+        this.etagCache = etagCache;
+        this.inFlightRequests = inFlightRequests;
+        this.tracing = tracing;
+    }
+
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        URI uri = parameters != null ? uriBuilderFactory.expand(path, parameters) : uriBuilderFactory.expand(path);
+        String uriTemplate = baseUrl + ID_SEGMENT.matcher(path).replaceAll("/{id}");
+        if (method == HttpMethod.GET) {
+            // the other request headers are the same for every call, so user and URI identify a GET
+            String key = EtagCache.key(userId, uri.toString());
+            return inFlightRequests.execute(userId, key, () -> sendConditionalGet(uri, uriTemplate, userId, key));
         }
-        return prepareGatewayResponse(shareitServerResponse);
-    }
 
-    private HttpHeaders defaultHeaders(Long userId) {
-        HttpHeaders headers = new HttpHeaders();
+        return inFlightRequests.write(userId, () -> tracing.trace(method, uriTemplate, span -> {
+            WebClient.RequestBodySpec request = webClient.method(method)
+                    .uri(uri)
+                    .attribute(URI_TEMPLATE_ATTRIBUTE, uriTemplate)
+                    .headers(headers -> setDefaultHeaders(headers, userId, span));
+            return (body != null ? request.bodyValue(body) : request)
+                    .exchangeToMono(BaseClient::prepareGatewayResponse);
+        }));
+    }
+
+    /**
+     * Revalidates a cached response with {@code If-None-Match} and reuses its body when the server answers 304.
+     * The ETag is passed on to the caller, so Spring MVC answers 304 to a client that already has the body.
+     */
+    private Mono<ResponseEntity<Object>> sendConditionalGet(URI uri, String uriTemplate, Long userId, String key) {
+        EtagCache.Entry cached = etagCache.get(key);
+
+        return tracing.trace(HttpMethod.GET, uriTemplate, span -> webClient.get()
+                .uri(uri)
+                .attribute(URI_TEMPLATE_ATTRIBUTE, uriTemplate)
+                .headers(headers -> {
+                    setDefaultHeaders(headers, userId, span);
+                    if (cached != null) {
+                        headers.setIfNoneMatch(cached.getEtag());
+                    }
+                })
+                .exchangeToMono(response -> {
+                    if (cached != null && response.statusCode() == HttpStatus.NOT_MODIFIED) {
+                        return response.releaseBody()
+                                .then(Mono.just(ResponseEntity.ok()
+                                        .eTag(cached.getEtag())
+                                        .contentType(cached.getContentType())
+                                        .body(cached.getBody())));
+                    }
+                    return prepareGatewayResponse(response)
+                            .doOnNext(gatewayResponse -> {
+                                String etag = gatewayResponse.getHeaders().getETag();
+                                if (etag != null && gatewayResponse.getStatusCode() == HttpStatus.OK
+                                        && gatewayResponse.getBody() instanceof byte[]) {
+                                    etagCache.put(key, etag, gatewayResponse.getHeaders().getContentType(),
+                                            (byte[]) gatewayResponse.getBody());
+                                } else {
+                                    etagCache.remove(key);
+                                }
+                            });
+                }));
+    }
+
+    /**
+     * The trace headers carry the call's span, so the server continues the gateway's trace.
+     */
+    private void setDefaultHeaders(HttpHeaders headers, Long userId, Span span) {
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
-        return headers;
+        tracing.inject(span, headers);
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
-        }
+    /**
+     * Passes the server's response through as raw bytes with its status and headers. The body is never parsed,
+     * so the gateway does not build a JSON tree just to write the same JSON again.
+     */
+    private static Mono<ResponseEntity<Object>> prepareGatewayResponse(ClientResponse response) {
+        HttpHeaders headers = gatewayHeaders(response.headers().asHttpHeaders());
+        int status = response.rawStatusCode();
+        return response.bodyToMono(byte[].class)
+                .map(body -> new ResponseEntity<Object>(body, headers, status))
+                .defaultIfEmpty(new ResponseEntity<>(null, headers, status));
+    }
 
-        return responseBuilder.build();
+    /**
+     * Server headers without the ones that belong to the server's connection, Tomcat sets its own.
+     */
+    private static HttpHeaders gatewayHeaders(HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(serverHeaders);
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        headers.remove(HttpHeaders.CONNECTION);
+        headers.remove(HTTP2_STREAM_ID);
+        return headers;
     }
 }
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU of GET response bodies, kept as the bytes the server sent, for responses that came with an ETag.
+ * Entries are keyed by user id and request URI.
+ * Entries are never served without asking the server: they are revalidated with {@code If-None-Match}
+ * and only reused when the server answers 304.
+ * The server computes its ETags with a {@code ShallowEtagHeaderFilter}, which still loads, serializes and hashes
+ * the response before answering 304, so a hit saves bandwidth and the body transfer, not server work.
+ */
+@Component
+public class EtagCache {
+    private final Map<String, Entry> entries;
+
+    public EtagCache(@Value("${shareit-gateway.etag-cache.max-size:10000}") int maxSize) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public static String key(Long userId, String uri) {
+        return userId + " " + uri;
+    }
+
+    public synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    public synchronized void put(String key, String etag, MediaType contentType, byte[] body) {
+        entries.put(key, new Entry(etag, contentType, body));
+    }
+
+    public synchronized void remove(String key) {
+        entries.remove(key);
+    }
+
+    public static final class Entry {
+        private final String etag;
+        private final MediaType contentType;
+        private final byte[] body;
+
+        private Entry(String etag, MediaType contentType, byte[] body) {
+            this.etag = etag;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public MediaType getContentType() {
+            return contentType;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+    }
+}
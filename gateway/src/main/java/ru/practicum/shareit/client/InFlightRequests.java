@@ -0,0 +1,99 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for identical GETs: while a call to the server is in flight, the same request with the same key
+ * waits for its response instead of making another call. The call runs to completion even if the client that
+ * started it goes away, so the others still get the response.
+ * Writes are tracked per user, hashed into {@value #WRITE_STRIPES} stripes: a write bumps its user's generation
+ * before it is sent and counts as pending until it completes. A GET joins only calls of the same generation and
+ * is not coalesced at all while a write of its user is pending, so a client always reads its own writes while
+ * other users' writes do not stop coalescing.
+ * Counts of calls made and requests coalesced are published as {@code gateway.get.upstream} and
+ * {@code gateway.get.coalesced}, their share as {@code gateway.get.coalescing.ratio}.
+ */
+@Component
+public class InFlightRequests {
+    static final int WRITE_STRIPES = 1024;
+
+    private final ConcurrentMap<String, CompletableFuture<ResponseEntity<Object>>> calls = new ConcurrentHashMap<>();
+    private final AtomicLongArray writeGenerations = new AtomicLongArray(WRITE_STRIPES);
+    private final AtomicIntegerArray pendingWrites = new AtomicIntegerArray(WRITE_STRIPES);
+    private final Counter upstream;
+    private final Counter coalesced;
+
+    public InFlightRequests(MeterRegistry meterRegistry) {
+        this.upstream = Counter.builder("gateway.get.upstream")
+                .description("GET requests sent to the server")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("gateway.get.coalesced")
+                .description("GET requests answered with the response of an identical request in flight")
+                .register(meterRegistry);
+        Gauge.builder("gateway.get.coalescing.ratio", this, InFlightRequests::coalescingRatio)
+                .description("Share of GET requests that did not reach the server")
+                .register(meterRegistry);
+    }
+
+    public Mono<ResponseEntity<Object>> execute(Long userId, String key,
+                                                Supplier<Mono<ResponseEntity<Object>>> call) {
+        return Mono.defer(() -> {
+            int stripe = stripe(userId);
+            // read before the pending count, which a write raises before its generation
+            long generation = writeGenerations.get(stripe);
+            if (pendingWrites.get(stripe) > 0) {
+                upstream.increment();
+                return call.get();
+            }
+            String callKey = generation + " " + key;
+            boolean[] started = {false};
+            CompletableFuture<ResponseEntity<Object>> response = calls.computeIfAbsent(callKey, k -> {
+                started[0] = true;
+                return call.get().toFuture();
+            });
+            if (started[0]) {
+                upstream.increment();
+                response.whenComplete((result, error) -> calls.remove(callKey, response));
+            } else {
+                coalesced.increment();
+            }
+            // a copy, so that a client going away cancels its own wait and not the shared call
+            return Mono.fromFuture(response.copy());
+        });
+    }
+
+    /**
+     * Marks the write as pending from the moment it is subscribed to, before the request is sent, until it
+     * completes, fails or is cancelled.
+     */
+    public Mono<ResponseEntity<Object>> write(Long userId, Supplier<Mono<ResponseEntity<Object>>> call) {
+        return Mono.defer(() -> {
+            int stripe = stripe(userId);
+            pendingWrites.incrementAndGet(stripe);
+            writeGenerations.incrementAndGet(stripe);
+            return call.get()
+                    .doFinally(signal -> pendingWrites.decrementAndGet(stripe));
+        });
+    }
+
+    private static int stripe(Long userId) {
+        return userId == null ? 0 : Math.floorMod(Long.hashCode(userId), WRITE_STRIPES);
+    }
+
+    private double coalescingRatio() {
+        double total = upstream.count() + coalesced.count();
+        return total == 0 ? 0 : coalesced.count() / total;
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.propagation.Propagator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.function.Function;
+
+/**
+ * Client spans for calls to the server, children of the span of the gateway request that makes them. The span is
+ * passed on in the request's {@code b3} headers, so the server's spans join the same trace, and the connector marks
+ * the steps of the call on it: {@value #CONNECTION_ACQUIRED} when the pool hands out a connection,
+ * {@value #REQUEST_SENT} when the request is written and {@value #RESPONSE_RECEIVED} when the response headers
+ * arrive. Time before the first event is spent waiting for a connection, the time between the last two is the
+ * server's span plus the wire.
+ */
+@Component
+public class ServerCallTracing {
+    static final String CONNECTION_ACQUIRED = "connection.acquired";
+    static final String REQUEST_SENT = "request.sent";
+    static final String RESPONSE_RECEIVED = "response.received";
+
+    private final Tracer tracer;
+    private final Propagator propagator;
+
+    public ServerCallTracing(Tracer tracer, Propagator propagator) {
+        this.tracer = tracer;
+        this.propagator = propagator;
+    }
+
+    /**
+     * Runs the call in a new client span, started on subscription and ended with the response.
+     */
+    Mono<ResponseEntity<Object>> trace(HttpMethod method, String uriTemplate,
+                                       Function<Span, Mono<ResponseEntity<Object>>> call) {
+        return Mono.defer(() -> {
+            Span span = tracer.spanBuilder()
+                    .name(method + " " + uriTemplate)
+                    .kind(Span.Kind.CLIENT)
+                    .tag("http.method", method.name())
+                    .tag("http.route", uriTemplate)
+                    .start();
+            return call.apply(span)
+                    .doOnNext(response -> span.tag("http.status_code",
+                            String.valueOf(response.getStatusCodeValue())))
+                    .doOnError(span::error)
+                    .doFinally(signal -> span.end())
+                    .contextWrite(context -> context.put(Span.class, span));
+        });
+    }
+
+    void inject(Span span, HttpHeaders headers) {
+        propagator.inject(span.context(), headers, HttpHeaders::set);
+    }
+
+    /**
+     * Called by the connector, which gets the span from the Reactor context of the call.
+     */
+    void event(ContextView context, String name) {
+        Span span = context.getOrDefault(Span.class, null);
+        if (span != null) {
+            span.event(name);
+        }
+    }
+}
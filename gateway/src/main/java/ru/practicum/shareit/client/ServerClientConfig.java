@@ -0,0 +1,48 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * One non-blocking connection pool to the ShareIt server for all clients. Every {@code WebClient.Builder}
+ * picks up the connector, so the clients share connections and no Tomcat thread waits for the server.
+ * The connector marks the steps of every call on its trace span, see {@link ServerCallTracing}.
+ */
+@Configuration
+@EnableConfigurationProperties(ServerClientProperties.class)
+public class ServerClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider serverConnectionProvider(ServerClientProperties properties) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireMaxCount(properties.getMaxPendingRequests())
+                .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+                .maxIdleTime(properties.getMaxIdleTime())
+                .build();
+    }
+
+    @Bean
+    public ClientHttpConnector serverHttpConnector(ConnectionProvider serverConnectionProvider,
+                                                   ServerClientProperties properties,
+                                                   ServerCallTracing tracing) {
+        HttpClient httpClient = HttpClient.create(serverConnectionProvider)
+                .protocol(properties.isHttp2() ? HttpProtocol.H2C : HttpProtocol.HTTP11)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getResponseTimeout())
+                .doOnRequest((request, connection) -> tracing.event(request.currentContextView(),
+                        ServerCallTracing.CONNECTION_ACQUIRED))
+                .doAfterRequest((request, connection) -> tracing.event(request.currentContextView(),
+                        ServerCallTracing.REQUEST_SENT))
+                .doOnResponse((response, connection) -> tracing.event(response.currentContextView(),
+                        ServerCallTracing.RESPONSE_RECEIVED));
+        return new ReactorClientHttpConnector(httpClient);
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Connection pool and timeouts of the HTTP client shared by all clients of the ShareIt server.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit-server")
+public class ServerClientProperties {
+    private String url;
+    /**
+     * Connections to the server; with HTTP/2 each of them carries many concurrent requests.
+     */
+    private int maxConnections = 500;
+    /**
+     * Requests allowed to wait for a free connection before new ones are refused.
+     */
+    private int maxPendingRequests = 10_000;
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(10);
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+    private Duration connectTimeout = Duration.ofSeconds(5);
+    private Duration responseTimeout = Duration.ofSeconds(30);
+    /**
+     * Talk HTTP/2 over cleartext with prior knowledge, the server must have {@code server.http2.enabled} on.
+     */
+    private boolean http2 = true;
+}
@@ -8,6 +8,8 @@ import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import javax.validation.ConstraintViolationException;
+
 
 @Slf4j
 @RestControllerAdvice
@@ -21,6 +23,14 @@ public class ErrorHandler {
         return new ErrorResponse("Передан некорректный параметр: " + e.getMessage());
     }
 
+    @ExceptionHandler(ConstraintViolationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ResponseBody
+    public ErrorResponse onConstraintViolationException(ConstraintViolationException e) {
+        log.info("Input validation error: {}", e.getMessage());
+        return new ErrorResponse("Передан некорректный параметр: " + e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleThrowable(final Throwable e) {
@@ -1,56 +1,64 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.EtagCache;
+import ru.practicum.shareit.client.InFlightRequests;
+import ru.practicum.shareit.client.ServerCallTracing;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import reactor.core.publisher.Mono;
 
 import javax.validation.Valid;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                      EtagCache etagCache, InFlightRequests inFlightRequests,
+                      ServerCallTracing tracing) {
+        super(serverUrl + API_PREFIX, builder, etagCache, inFlightRequests, tracing);
     }
 
-    public ResponseEntity<Object> postItem(long userId, @Valid ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> postItem(long userId, @Valid ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> postComment(@Valid CommentDto commentDto, long userId, long itemId) {
+    public Mono<ResponseEntity<Object>> postItems(long userId, List<ItemDto> itemDtos) {
+        return post("/batch", userId, itemDtos);
+    }
+
+    public Mono<ResponseEntity<Object>> postComment(@Valid CommentDto commentDto, long userId, long itemId) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 
-    public ResponseEntity<Object> update(long userId, long itemId, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> update(long userId, long itemId, ItemDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> getItem(long userId, long itemId) {
+    public Mono<ResponseEntity<Object>> getItem(long userId, long itemId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getItems(long userId, int from, int size) {
+    public Mono<ResponseEntity<Object>> getItems(long userId, int from, int size, boolean total) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
-                "size", size
+                "size", size,
+                "total", total
         );
-        return get("", userId, parameters);
+        return get("?from={from}&size={size}&total={total}", userId, parameters);
     }
 
-    public ResponseEntity<Object> searchItems(long userId, String text, int from, int size) {
+    public Mono<ResponseEntity<Object>> searchItems(long userId, String text, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
@@ -58,4 +66,18 @@ public class ItemClient extends BaseClient {
         );
         return get("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
+
+    public Mono<ResponseEntity<Object>> getFreeSlots(long userId, long itemId, LocalDateTime start, LocalDateTime end) {
+        Map<String, Object> parameters = new HashMap<>();
+        if (start != null) {
+            parameters.put("start", start);
+        }
+        if (end != null) {
+            parameters.put("end", end);
+        }
+        String query = parameters.keySet().stream()
+                .map(name -> name + "={" + name + "}")
+                .collect(Collectors.joining("&"));
+        return get("/" + itemId + "/slots" + (query.isEmpty() ? "" : "?" + query), userId, parameters);
+    }
 }
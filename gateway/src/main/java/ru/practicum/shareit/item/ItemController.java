@@ -2,16 +2,22 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import reactor.core.publisher.Mono;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Controller
 @RequestMapping("/items")
@@ -20,54 +26,79 @@ import javax.validation.constraints.PositiveOrZero;
 @Slf4j
 public class ItemController {
 
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> postItem(@RequestHeader(value = "X-Sharer-User-Id", required = true) Long userId,
-                                           @RequestBody @Valid ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> postItem(@RequestHeader(value = "X-Sharer-User-Id", required = true) Long userId,
+                                                 @RequestBody @Valid ItemDto itemDto) {
         log.info("Posting item {} by user with id {}", itemDto, userId);
         return itemClient.postItem(userId, itemDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> postItems(@RequestHeader(value = "X-Sharer-User-Id", required = true) Long userId,
+                                                  @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                                  List<@Valid ItemDto> itemDtos) {
+        log.info("Posting {} items by user with id {}", itemDtos.size(), userId);
+        return itemClient.postItems(userId, itemDtos);
+    }
+
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> postComment(@RequestHeader(value = "X-Sharer-User-Id", required = true) long userId,
-                                              @PathVariable long itemId,
-                                              @Valid @RequestBody  CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> postComment(@RequestHeader(value = "X-Sharer-User-Id", required = true) long userId,
+                                                    @PathVariable long itemId,
+                                                    @Valid @RequestBody  CommentDto commentDto) {
         log.info("Posting comment {} to item with id {} by user with id {}", commentDto, itemId, userId);
         return itemClient.postComment(commentDto, userId, itemId);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestHeader(value = "X-Sharer-User-Id", required = true) long userId,
-                                             @RequestBody ItemDto itemDto,
-                                             @PathVariable long itemId)  {
+    public Mono<ResponseEntity<Object>> updateItem(@RequestHeader(value = "X-Sharer-User-Id", required = true) long userId,
+                                                   @RequestBody ItemDto itemDto,
+                                                   @PathVariable long itemId)  {
         log.info("Updating item with id {} to {} by user with id {}", itemId, itemDto, userId);
         return itemClient.update(userId, itemId, itemDto);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@RequestHeader(value = "X-Sharer-User-Id", required = true) long userId,
-                                                   @PathVariable long itemId) {
+    public Mono<ResponseEntity<Object>> getItemById(@RequestHeader(value = "X-Sharer-User-Id", required = true) long userId,
+                                                         @PathVariable long itemId) {
         log.info("Retrieving item with id {} by user with id {}", itemId, userId);
         return itemClient.getItem(userId, itemId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllItems(@RequestHeader(value = "X-Sharer-User-Id", required = true)
-                                                         long userId,
-                                                        @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                                        @Positive @RequestParam(defaultValue = "10")
-                                                         int size) {
-        log.info("Retrieving all items by user with id {}, from {}, size {}", userId, from, size);
-        return itemClient.getItems(userId, from, size);
+    public Mono<ResponseEntity<Object>> getAllItems(@RequestHeader(value = "X-Sharer-User-Id", required = true)
+                                                               long userId,
+                                                              @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                              @Positive @RequestParam(defaultValue = "10")
+                                                               int size,
+                                                              @RequestParam(defaultValue = "false") boolean total) {
+        log.info("Retrieving all items by user with id {}, from {}, size {}, total {}", userId, from, size, total);
+        return itemClient.getItems(userId, from, size, total);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItem(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId,
-                                    @RequestParam (required = true)  String text,
-                                    @RequestParam(defaultValue = "0") int from,
-                                    @RequestParam(defaultValue = "10") int size) {
+    public Mono<ResponseEntity<Object>> searchItem(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId,
+                                          @RequestParam (required = true)  String text,
+                                          @RequestParam(defaultValue = "0") int from,
+                                          @RequestParam(defaultValue = "10") int size) {
         log.info("Searching items by text {}, from {}, size{}", text, from, size);
         return itemClient.searchItems(userId, text, from, size);
     }
+
+    @GetMapping("/{itemId}/slots")
+    public Mono<ResponseEntity<Object>> getFreeSlots(@RequestHeader(value = "X-Sharer-User-Id", required = true) long userId,
+                                                     @PathVariable long itemId,
+                                                     @RequestParam(required = false)
+                                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                     @RequestParam(required = false)
+                                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.info("Retrieving free slots of item with id {} from {} to {} by user with id {}", itemId, start, end, userId);
+        if (start != null && end != null && !end.isAfter(start)) {
+            throw new IllegalArgumentException("End of the period must be after its start");
+        }
+        return itemClient.getFreeSlots(userId, itemId, start, end);
+    }
 }
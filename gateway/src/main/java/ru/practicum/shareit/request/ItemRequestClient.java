@@ -2,13 +2,15 @@ package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.EtagCache;
+import ru.practicum.shareit.client.InFlightRequests;
+import ru.practicum.shareit.client.ServerCallTracing;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import reactor.core.publisher.Mono;
 
 import java.util.Map;
 
@@ -18,32 +20,30 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                             EtagCache etagCache, InFlightRequests inFlightRequests,
+                             ServerCallTracing tracing) {
+        super(serverUrl + API_PREFIX, builder, etagCache, inFlightRequests, tracing);
     }
 
-    public ResponseEntity<Object> postItemRequest(long userid, ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> postItemRequest(long userid, ItemRequestDto itemRequestDto) {
         return post("", userid, itemRequestDto);
     }
 
-    public ResponseEntity<Object> getRequests(long userId) {
+    public Mono<ResponseEntity<Object>> getRequests(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getRequest(long userId, long requestId) {
+    public Mono<ResponseEntity<Object>> getRequest(long userId, long requestId) {
         return get("/" + requestId, userId);
     }
 
-    public ResponseEntity<Object> getAllRequests(long userId, int from, int size) {
+    public Mono<ResponseEntity<Object>> getAllRequests(long userId, int from, int size, boolean total) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
-                "size", size
+                "size", size,
+                "total", total
         );
-        return get("/all", userId, parameters);
+        return get("/all?from={from}&size={size}&total={total}", userId, parameters);
     }
 }
@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.UserDto;
+import reactor.core.publisher.Mono;
 
 import javax.validation.Valid;
 
@@ -18,31 +19,31 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> postUser(@Valid @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> postUser(@Valid @RequestBody UserDto userDto) {
         log.info("Posting user {}", userDto);
         return userClient.postUser(userDto);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> updateUser(@PathVariable(value = "id") Long userId, @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> updateUser(@PathVariable(value = "id") Long userId, @RequestBody UserDto userDto) {
         log.info("Updating user with id {} to {}", userId, userDto);
         return userClient.updateUser(userId, userDto);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> deleteUser(@PathVariable(value = "id") long userId) {
+    public Mono<ResponseEntity<Object>> deleteUser(@PathVariable(value = "id") long userId) {
         log.info("Deleting user with id {}", userId);
        return userClient.deleteUser(userId);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getById(@PathVariable(value = "id") long userId) {
+    public Mono<ResponseEntity<Object>> getById(@PathVariable(value = "id") long userId) {
         log.info("Retrieving user by id {}", userId);
         return userClient.getUser(userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
+    public Mono<ResponseEntity<Object>> getAllUsers() {
         log.info("Getting all users");
         return userClient.getUsers();
     }
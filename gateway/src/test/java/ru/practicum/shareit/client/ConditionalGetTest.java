@@ -0,0 +1,154 @@
+package ru.practicum.shareit.client;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Runs the gateway against a mock server and checks how GET responses with an ETag are cached and revalidated.
+ */
+@SpringBootTest(
+        properties = "shareit-server.http2=false",
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ConditionalGetTest {
+    private static final String ETAG = "\"0a1b2c\"";
+    private static final String USER = "{\"id\":1,\"name\":\"User\",\"email\":\"user@mail.ru\"}";
+    private static MockWebServer server;
+
+    @Autowired
+    private WebTestClient client;
+    @Autowired
+    private EtagCache etagCache;
+
+    @BeforeAll
+    public static void startServer() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterAll
+    public static void stopServer() throws IOException {
+        server.shutdown();
+    }
+
+    @DynamicPropertySource
+    public static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getPort());
+    }
+
+    @Test
+    public void get_whenServerAnswersNotModified_thenCachedBodyReturned() throws InterruptedException {
+        server.enqueue(ok(USER));
+        getUser(1).expectStatus().isOk().expectBody().json(USER);
+        assertNull(takeRequest().getHeader(HttpHeaders.IF_NONE_MATCH));
+
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader(HttpHeaders.ETAG, ETAG));
+
+        getUser(1)
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, ETAG)
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().json(USER);
+        assertEquals(ETAG, takeRequest().getHeader(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    @Test
+    public void get_whenClientHasCurrentEtag_thenNotModified() throws InterruptedException {
+        server.enqueue(ok(USER));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader(HttpHeaders.ETAG, ETAG));
+        getUser(2).expectStatus().isOk();
+        takeRequest();
+
+        client.get().uri("/users/2")
+                .header(HttpHeaders.IF_NONE_MATCH, ETAG)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+        assertEquals(ETAG, takeRequest().getHeader(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    @Test
+    public void get_whenResourceChangedByWrite_thenNewBodyCached() throws InterruptedException {
+        String updated = "{\"id\":3,\"name\":\"Renamed\",\"email\":\"user@mail.ru\"}";
+        server.enqueue(ok(USER));
+        getUser(3).expectStatus().isOk();
+        takeRequest();
+
+        server.enqueue(new MockResponse().setResponseCode(200)
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody(updated));
+        client.patch().uri("/users/3")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"Renamed\"}")
+                .exchange()
+                .expectStatus().isOk();
+        takeRequest();
+
+        server.enqueue(new MockResponse().setResponseCode(200)
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setHeader(HttpHeaders.ETAG, "\"3d4e5f\"")
+                .setBody(updated));
+        getUser(3).expectStatus().isOk().expectBody().json(updated);
+        assertEquals(ETAG, takeRequest().getHeader(HttpHeaders.IF_NONE_MATCH));
+
+        EtagCache.Entry entry = etagCache.get(EtagCache.key(null, "http://localhost:" + server.getPort() + "/users/3"));
+        assertNotNull(entry);
+        assertEquals("\"3d4e5f\"", entry.getEtag());
+    }
+
+    @Test
+    public void get_whenResourceDeletedByWrite_thenCacheEntryDropped() throws InterruptedException {
+        server.enqueue(ok(USER));
+        getUser(4).expectStatus().isOk();
+        takeRequest();
+
+        server.enqueue(new MockResponse().setResponseCode(200));
+        client.delete().uri("/users/4").exchange().expectStatus().isOk();
+        takeRequest();
+
+        server.enqueue(new MockResponse().setResponseCode(404)
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody("{\"error\":\"User with id 4 is not found\"}"));
+        getUser(4).expectStatus().isNotFound();
+        assertEquals(ETAG, takeRequest().getHeader(HttpHeaders.IF_NONE_MATCH));
+
+        server.enqueue(new MockResponse().setResponseCode(404));
+        getUser(4).expectStatus().isNotFound();
+        assertNull(takeRequest().getHeader(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    private WebTestClient.ResponseSpec getUser(long userId) {
+        return client.get().uri("/users/" + userId).exchange();
+    }
+
+    private static MockResponse ok(String body) {
+        return new MockResponse()
+                .setResponseCode(200)
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setHeader(HttpHeaders.ETAG, ETAG)
+                .setBody(body);
+    }
+
+    private static RecordedRequest takeRequest() throws InterruptedException {
+        RecordedRequest request = server.takeRequest(5, TimeUnit.SECONDS);
+        assertNotNull(request, "The gateway did not call the server");
+        return request;
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class EtagCacheTest {
+    private static final int MAX_SIZE = 2;
+
+    private EtagCache etagCache;
+
+    @BeforeEach
+    public void beforeEach() {
+        etagCache = new EtagCache(MAX_SIZE);
+    }
+
+    @Test
+    public void get_whenPut_thenEntryReturned() {
+        etagCache.put(EtagCache.key(1L, "/items/1"), "\"1\"", MediaType.APPLICATION_JSON, new byte[]{1});
+
+        EtagCache.Entry entry = etagCache.get(EtagCache.key(1L, "/items/1"));
+
+        assertNotNull(entry);
+        assertEquals("\"1\"", entry.getEtag());
+        assertEquals(MediaType.APPLICATION_JSON, entry.getContentType());
+        assertArrayEquals(new byte[]{1}, entry.getBody());
+        assertNull(etagCache.get(EtagCache.key(2L, "/items/1")));
+    }
+
+    @Test
+    public void put_whenFull_thenLeastRecentlyUsedEvicted() {
+        etagCache.put("first", "\"1\"", MediaType.APPLICATION_JSON, new byte[0]);
+        etagCache.put("second", "\"2\"", MediaType.APPLICATION_JSON, new byte[0]);
+        etagCache.get("first");
+
+        etagCache.put("third", "\"3\"", MediaType.APPLICATION_JSON, new byte[0]);
+
+        assertNotNull(etagCache.get("first"));
+        assertNull(etagCache.get("second"));
+        assertNotNull(etagCache.get("third"));
+    }
+
+    @Test
+    public void remove_thenEntryGone() {
+        etagCache.put("first", "\"1\"", MediaType.APPLICATION_JSON, new byte[0]);
+
+        etagCache.remove("first");
+
+        assertNull(etagCache.get("first"));
+    }
+}
@@ -0,0 +1,153 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class InFlightRequestsTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final String KEY = EtagCache.key(1L, "http://localhost/items/1");
+
+    private MeterRegistry registry;
+    private InFlightRequests inFlightRequests;
+    private List<Sinks.One<ResponseEntity<Object>>> serverCalls;
+
+    @BeforeEach
+    public void beforeEach() {
+        registry = new SimpleMeterRegistry();
+        inFlightRequests = new InFlightRequests(registry);
+        serverCalls = new ArrayList<>();
+    }
+
+    @Test
+    public void execute_whenIdenticalGetsConcurrent_thenOneServerCall() {
+        Mono<ResponseEntity<Object>> first = inFlightRequests.execute(1L, KEY, this::callServer).cache();
+        Mono<ResponseEntity<Object>> second = inFlightRequests.execute(1L, KEY, this::callServer).cache();
+        first.subscribe();
+        second.subscribe();
+
+        respond(0, "item");
+
+        assertEquals("item", first.block(TIMEOUT).getBody());
+        assertEquals("item", second.block(TIMEOUT).getBody());
+        assertEquals(1, serverCalls.size());
+        assertEquals(1, registry.get("gateway.get.upstream").counter().count());
+        assertEquals(1, registry.get("gateway.get.coalesced").counter().count());
+        assertEquals(0.5, registry.get("gateway.get.coalescing.ratio").gauge().value());
+    }
+
+    @Test
+    public void execute_whenDifferentKeys_thenSeparateServerCalls() {
+        inFlightRequests.execute(1L, KEY, this::callServer).subscribe();
+        inFlightRequests.execute(2L, EtagCache.key(2L, "http://localhost/items/1"), this::callServer).subscribe();
+
+        assertEquals(2, serverCalls.size());
+    }
+
+    @Test
+    public void execute_whenCallCompleted_thenNextGetCallsServerAgain() {
+        Mono<ResponseEntity<Object>> first = inFlightRequests.execute(1L, KEY, this::callServer).cache();
+        first.subscribe();
+        respond(0, "item");
+        first.block(TIMEOUT);
+
+        inFlightRequests.execute(1L, KEY, this::callServer).subscribe();
+
+        assertEquals(2, serverCalls.size());
+    }
+
+    @Test
+    public void execute_whenWriteOfSameUserPending_thenNotCoalesced() {
+        inFlightRequests.write(1L, this::callServer).subscribe();
+
+        inFlightRequests.execute(1L, KEY, this::callServer).subscribe();
+        inFlightRequests.execute(1L, KEY, this::callServer).subscribe();
+
+        assertEquals(3, serverCalls.size());
+        assertEquals(0, registry.get("gateway.get.coalesced").counter().count());
+    }
+
+    @Test
+    public void execute_whenWriteCompletedAfterGetStarted_thenLaterGetDoesNotJoinIt() {
+        Mono<ResponseEntity<Object>> stale = inFlightRequests.execute(1L, KEY, this::callServer).cache();
+        stale.subscribe();
+        Mono<ResponseEntity<Object>> write = inFlightRequests.write(1L, this::callServer).cache();
+        write.subscribe();
+        respond(1, "written");
+        write.block(TIMEOUT);
+
+        Mono<ResponseEntity<Object>> fresh = inFlightRequests.execute(1L, KEY, this::callServer).cache();
+        fresh.subscribe();
+        respond(0, "before write");
+        respond(2, "after write");
+
+        assertEquals("before write", stale.block(TIMEOUT).getBody());
+        assertEquals("after write", fresh.block(TIMEOUT).getBody());
+    }
+
+    @Test
+    public void execute_whenGetSentOnWriteResponse_thenDoesNotJoinGetStartedBeforeWrite() {
+        inFlightRequests.execute(1L, KEY, this::callServer).subscribe();
+        List<Mono<ResponseEntity<Object>>> reads = new ArrayList<>();
+        // the client reads as soon as it has the write's response, before the write's own cleanup runs
+        inFlightRequests.write(1L, this::callServer)
+                .doOnNext(response -> reads.add(inFlightRequests.execute(1L, KEY, this::callServer).cache()))
+                .subscribe();
+
+        respond(1, "written");
+        reads.get(0).subscribe();
+
+        assertEquals(3, serverCalls.size());
+        respond(2, "after write");
+        assertEquals("after write", reads.get(0).block(TIMEOUT).getBody());
+    }
+
+    @Test
+    public void execute_whenOtherUserWrites_thenStillCoalesced() {
+        inFlightRequests.execute(1L, KEY, this::callServer).subscribe();
+        Mono<ResponseEntity<Object>> write = inFlightRequests.write(2L, this::callServer).cache();
+        write.subscribe();
+        respond(1, "written");
+        write.block(TIMEOUT);
+
+        inFlightRequests.execute(1L, KEY, this::callServer).subscribe();
+
+        assertEquals(2, serverCalls.size());
+        assertEquals(1, registry.get("gateway.get.coalesced").counter().count());
+    }
+
+    @Test
+    public void write_whenFailed_thenNoLongerPending() {
+        Mono<ResponseEntity<Object>> write = inFlightRequests.write(1L, this::callServer)
+                .onErrorResume(e -> Mono.empty())
+                .cache();
+        write.subscribe();
+        serverCalls.get(0).tryEmitError(new IllegalStateException("Connection refused"));
+        write.block(TIMEOUT);
+
+        inFlightRequests.execute(1L, KEY, this::callServer).subscribe();
+        inFlightRequests.execute(1L, KEY, this::callServer).subscribe();
+
+        assertEquals(2, serverCalls.size());
+    }
+
+    private Mono<ResponseEntity<Object>> callServer() {
+        Sinks.One<ResponseEntity<Object>> call = Sinks.one();
+        serverCalls.add(call);
+        return call.asMono();
+    }
+
+    private void respond(int call, String body) {
+        serverCalls.get(call).tryEmitValue(ResponseEntity.ok(body));
+    }
+}
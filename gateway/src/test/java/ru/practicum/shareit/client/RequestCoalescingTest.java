@@ -0,0 +1,123 @@
+package ru.practicum.shareit.client;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Runs the gateway against a mock server that answers slowly and checks which GETs share a call to it.
+ */
+@SpringBootTest(
+        properties = "shareit-server.http2=false",
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class RequestCoalescingTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static MockWebServer server;
+
+    @Autowired
+    private WebTestClient client;
+
+    @BeforeAll
+    public static void startServer() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterAll
+    public static void stopServer() throws IOException {
+        server.shutdown();
+    }
+
+    @DynamicPropertySource
+    public static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getPort());
+    }
+
+    @Test
+    public void get_whenIdenticalGetsConcurrent_thenServerCalledOnce() throws InterruptedException {
+        server.enqueue(slowResponse("{\"id\":1,\"name\":\"Drill\"}"));
+
+        Mono<String> first = getItem(1, 1).cache();
+        Mono<String> second = getItem(1, 1).cache();
+        first.subscribe();
+        takeRequest();
+        second.subscribe();
+
+        assertEquals("{\"id\":1,\"name\":\"Drill\"}", first.block(TIMEOUT));
+        assertEquals("{\"id\":1,\"name\":\"Drill\"}", second.block(TIMEOUT));
+        assertNull(server.takeRequest(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void get_whenSameUserWroteDuringGet_thenReadsOwnWrite() throws InterruptedException {
+        server.enqueue(slowResponse("{\"id\":2,\"name\":\"Drill\"}"));
+        server.enqueue(response("{\"id\":2,\"name\":\"Saw\"}"));
+        server.enqueue(response("{\"id\":2,\"name\":\"Saw\"}"));
+
+        Mono<String> stale = getItem(2, 2).cache();
+        stale.subscribe();
+        takeRequest();
+        client.patch().uri("/items/2")
+                .header("X-Sharer-User-Id", "2")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"Saw\"}")
+                .exchange()
+                .expectStatus().isOk();
+        takeRequest();
+
+        assertEquals("{\"id\":2,\"name\":\"Saw\"}", getItem(2, 2).block(TIMEOUT));
+        assertEquals("/items/2", takeRequest().getPath());
+        assertEquals("{\"id\":2,\"name\":\"Drill\"}", stale.block(TIMEOUT));
+    }
+
+    /**
+     * The test client blocks until the response arrives, so each GET runs on a thread of its own once subscribed.
+     */
+    private Mono<String> getItem(long userId, long itemId) {
+        return Mono.fromCallable(() -> client.get().uri("/items/" + itemId)
+                        .header("X-Sharer-User-Id", String.valueOf(userId))
+                        .exchange()
+                        .expectStatus().isOk()
+                        .expectBody(String.class)
+                        .returnResult()
+                        .getResponseBody())
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static MockResponse slowResponse(String body) {
+        return response(body).setHeadersDelay(2, TimeUnit.SECONDS);
+    }
+
+    private static MockResponse response(String body) {
+        return new MockResponse()
+                .setResponseCode(200)
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody(body);
+    }
+
+    private static RecordedRequest takeRequest() throws InterruptedException {
+        RecordedRequest request = server.takeRequest(5, TimeUnit.SECONDS);
+        assertNotNull(request, "The gateway did not call the server");
+        return request;
+    }
+}
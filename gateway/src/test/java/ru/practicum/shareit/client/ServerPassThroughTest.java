@@ -0,0 +1,170 @@
+package ru.practicum.shareit.client;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Runs the gateway against a mock server and checks that statuses, bodies and headers of the server's responses
+ * reach the client unchanged, and that the user id is passed on to the server.
+ */
+@SpringBootTest(
+        properties = "shareit-server.http2=false",
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ServerPassThroughTest {
+    private static final String JSON = MediaType.APPLICATION_JSON_VALUE;
+    private static MockWebServer server;
+
+    @Autowired
+    private WebTestClient client;
+
+    @BeforeAll
+    public static void startServer() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterAll
+    public static void stopServer() throws IOException {
+        server.shutdown();
+    }
+
+    @DynamicPropertySource
+    public static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getPort());
+    }
+
+    @Test
+    public void get_whenServerAnswersOk_thenStatusBodyAndHeadersPassedThrough() throws InterruptedException {
+        server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader(HttpHeaders.CONTENT_TYPE, JSON)
+                .setHeader("X-Total-Count", "12")
+                .setBody("{\"id\":5,\"status\":\"WAITING\"}"));
+
+        client.get().uri("/bookings/5")
+                .header("X-Sharer-User-Id", "7")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectHeader().valueEquals("X-Total-Count", "12")
+                .expectBody().json("{\"id\":5,\"status\":\"WAITING\"}");
+
+        RecordedRequest request = takeRequest();
+        assertEquals("GET", request.getMethod());
+        assertEquals("/bookings/5", request.getPath());
+        assertEquals("7", request.getHeader("X-Sharer-User-Id"));
+    }
+
+    @Test
+    public void post_whenServerAnswersCreated_thenStatusAndBodyPassedThroughAndBodyForwarded()
+            throws InterruptedException {
+        server.enqueue(new MockResponse()
+                .setResponseCode(201)
+                .setHeader(HttpHeaders.CONTENT_TYPE, JSON)
+                .setBody("{\"id\":3,\"name\":\"User\",\"email\":\"user@mail.ru\"}"));
+
+        client.post().uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"User\",\"email\":\"user@mail.ru\"}")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody().json("{\"id\":3,\"name\":\"User\",\"email\":\"user@mail.ru\"}");
+
+        RecordedRequest request = takeRequest();
+        assertEquals("POST", request.getMethod());
+        assertEquals("/users", request.getPath());
+        assertNull(request.getHeader("X-Sharer-User-Id"));
+        assertEquals("{\"name\":\"User\",\"email\":\"user@mail.ru\"}", request.getBody().readUtf8());
+    }
+
+    @Test
+    public void patch_whenServerAnswersNotFound_thenStatusAndErrorBodyPassedThrough() throws InterruptedException {
+        server.enqueue(new MockResponse()
+                .setResponseCode(404)
+                .setHeader(HttpHeaders.CONTENT_TYPE, JSON)
+                .setBody("{\"error\":\"Booking with id 8 is not found\"}"));
+
+        client.patch().uri("/bookings/8?approved=true")
+                .header("X-Sharer-User-Id", "2")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().json("{\"error\":\"Booking with id 8 is not found\"}");
+
+        RecordedRequest request = takeRequest();
+        assertEquals("PATCH", request.getMethod());
+        assertEquals("/bookings/8?approved=true", request.getPath());
+        assertEquals("2", request.getHeader("X-Sharer-User-Id"));
+    }
+
+    @Test
+    public void get_whenServerAnswersConflict_thenStatusAndErrorBodyPassedThrough() throws InterruptedException {
+        server.enqueue(new MockResponse()
+                .setResponseCode(409)
+                .setHeader(HttpHeaders.CONTENT_TYPE, JSON)
+                .setBody("{\"error\":\"Email is already taken\"}"));
+
+        client.get().uri("/users/9")
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody().json("{\"error\":\"Email is already taken\"}");
+
+        assertEquals("/users/9", takeRequest().getPath());
+    }
+
+    @Test
+    public void delete_whenServerFails_thenStatusAndErrorBodyPassedThrough() throws InterruptedException {
+        server.enqueue(new MockResponse()
+                .setResponseCode(500)
+                .setHeader(HttpHeaders.CONTENT_TYPE, JSON)
+                .setBody("{\"error\":\"Unexpected error\"}"));
+
+        client.delete().uri("/users/4")
+                .exchange()
+                .expectStatus().isEqualTo(500)
+                .expectBody().json("{\"error\":\"Unexpected error\"}");
+
+        RecordedRequest request = takeRequest();
+        assertEquals("DELETE", request.getMethod());
+        assertEquals("/users/4", request.getPath());
+    }
+
+    @Test
+    public void get_whenServerUnavailable_thenServiceUnavailable() throws InterruptedException {
+        server.enqueue(new MockResponse()
+                .setResponseCode(503)
+                .setHeader(HttpHeaders.RETRY_AFTER, "30"));
+
+        client.get().uri("/items/6")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isEqualTo(503)
+                .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "30")
+                .expectBody().isEmpty();
+
+        assertEquals("1", takeRequest().getHeader("X-Sharer-User-Id"));
+    }
+
+    private static RecordedRequest takeRequest() throws InterruptedException {
+        RecordedRequest request = server.takeRequest(5, TimeUnit.SECONDS);
+        assertNotNull(request, "The gateway did not call the server");
+        return request;
+    }
+}
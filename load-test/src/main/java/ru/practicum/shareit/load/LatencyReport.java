@@ -0,0 +1,70 @@
+package ru.practicum.shareit.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and error counts per endpoint. Latencies are recorded in microseconds up to one minute.
+ */
+final class LatencyReport {
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final ConcurrentMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long startNanos, boolean successful) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, name -> new Endpoint());
+        stats.latencies.recordValue(Math.min(Math.max(micros, 1), MAX_LATENCY_MICROS));
+        if (!successful) {
+            stats.errors.increment();
+        }
+    }
+
+    void reset() {
+        endpoints.clear();
+    }
+
+    String format(Duration elapsed) {
+        double seconds = elapsed.toMillis() / 1000.0;
+        StringBuilder report = new StringBuilder(String.format(Locale.ROOT,
+                "%-24s %9s %7s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50 ms",
+                "p99 ms", "p999 ms", "max ms"));
+        Histogram total = new Histogram(MAX_LATENCY_MICROS, 3);
+        long totalErrors = 0;
+        for (Map.Entry<String, Endpoint> entry : new TreeMap<>(endpoints).entrySet()) {
+            Histogram latencies = entry.getValue().latencies.copy();
+            long errors = entry.getValue().errors.sum();
+            total.add(latencies);
+            totalErrors += errors;
+            appendRow(report, entry.getKey(), latencies, errors, seconds);
+        }
+        appendRow(report, "total", total, totalErrors, seconds);
+        return report.toString();
+    }
+
+    private static void appendRow(StringBuilder report, String name, Histogram latencies, long errors,
+                                  double seconds) {
+        report.append(String.format(Locale.ROOT, "%-24s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", name,
+                latencies.getTotalCount(), errors, latencies.getTotalCount() / seconds,
+                millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(99)),
+                millis(latencies.getValueAtPercentile(99.9)), millis(latencies.getMaxValue())));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class Endpoint {
+        private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.load;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Starts server and gateway, seeds them and replays the rental workload with a fixed number of concurrent
+ * clients, then prints throughput and latency percentiles per endpoint and writes them to
+ * {@code load-test-report.txt} in the work directory.
+ * Clients send the next request as soon as the previous one is answered, so a stall delays the requests behind it
+ * instead of recording them as slow: compare percentiles between runs with the same concurrency.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        if (settings.gatewayUrl != null) {
+            run(settings);
+            return;
+        }
+        try (LocalApplications ignored = LocalApplications.start(settings)) {
+            run(settings);
+        }
+    }
+
+    private static void run(LoadTestSettings settings) throws Exception {
+        LatencyReport report = new LatencyReport();
+        RentalWorkload workload = new RentalWorkload(new ShareItApi(settings.gatewayUrl()), report);
+        workload.seed(settings);
+
+        System.out.printf("Warming up for %d s with %d clients%n", settings.warmup.toSeconds(),
+                settings.concurrency);
+        drive(workload, settings.concurrency, settings.warmup);
+        report.reset();
+
+        System.out.printf("Measuring for %d s with %d clients%n", settings.duration.toSeconds(),
+                settings.concurrency);
+        long start = System.nanoTime();
+        drive(workload, settings.concurrency, settings.duration);
+        String result = report.format(Duration.ofNanos(System.nanoTime() - start));
+
+        System.out.print(result);
+        Path reportFile = settings.workDir.resolve("load-test-report.txt");
+        writeReport(reportFile, result);
+        System.out.println("Report written to " + reportFile);
+    }
+
+    private static void drive(RentalWorkload workload, int concurrency, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<?>> running = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                running.add(clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        workload.runOperation();
+                    }
+                }));
+            }
+            for (Future<?> client : running) {
+                client.get();
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private static void writeReport(Path file, String report) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.writeString(file, report);
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Load test settings, read from {@code load.*} system properties.
+ */
+final class LoadTestSettings {
+    final Path serverJar;
+    final Path gatewayJar;
+    final Path workDir;
+    /**
+     * Extra Spring profiles for both applications, for example {@code virtual-threads}.
+     */
+    final String profiles;
+    final int serverPort;
+    final int gatewayPort;
+    /**
+     * Url of an already running gateway. When it is set no applications are started.
+     */
+    final String gatewayUrl;
+    final int owners;
+    final int bookers;
+    final int itemsPerOwner;
+    final int concurrency;
+    final Duration warmup;
+    final Duration duration;
+
+    private LoadTestSettings() {
+        serverJar = Path.of(System.getProperty("load.server-jar", "server/target/server-0.0.1-SNAPSHOT-exec.jar"));
+        gatewayJar = Path.of(System.getProperty("load.gateway-jar",
+                "gateway/target/shareit-gateway-0.0.1-SNAPSHOT.jar"));
+        workDir = Path.of(System.getProperty("load.work-dir", "."));
+        profiles = System.getProperty("load.profiles", "");
+        serverPort = Integer.getInteger("load.server-port", 19090);
+        gatewayPort = Integer.getInteger("load.gateway-port", 18080);
+        gatewayUrl = System.getProperty("load.gateway-url");
+        owners = Integer.getInteger("load.owners", 50);
+        bookers = Integer.getInteger("load.bookers", 200);
+        itemsPerOwner = Integer.getInteger("load.items-per-owner", 40);
+        concurrency = Integer.getInteger("load.concurrency", 64);
+        warmup = Duration.ofSeconds(Integer.getInteger("load.warmup", 15));
+        duration = Duration.ofSeconds(Integer.getInteger("load.duration", 60));
+    }
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings();
+    }
+
+    String gatewayUrl() {
+        return gatewayUrl != null ? gatewayUrl : "http://localhost:" + gatewayPort;
+    }
+}
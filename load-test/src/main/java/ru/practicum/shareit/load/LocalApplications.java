@@ -0,0 +1,98 @@
+package ru.practicum.shareit.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server and gateway started from their executable jars as child processes, the server on in-memory H2.
+ * Their output goes to {@code server.log} and {@code gateway.log} in the work directory.
+ */
+final class LocalApplications implements AutoCloseable {
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+    private final List<Process> processes = new ArrayList<>();
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    static LocalApplications start(LoadTestSettings settings) throws IOException, InterruptedException {
+        LocalApplications applications = new LocalApplications();
+        try {
+            String profiles = settings.profiles.isEmpty() ? "" : "," + settings.profiles;
+            applications.start("server", settings.serverJar, settings.workDir, settings.serverPort,
+                    "--spring.profiles.active=ci" + profiles,
+                    "--server.port=" + settings.serverPort);
+            applications.start("gateway", settings.gatewayJar, settings.workDir, settings.gatewayPort,
+                    "--spring.profiles.active=default" + profiles,
+                    "--server.port=" + settings.gatewayPort,
+                    "--shareit-server.url=http://localhost:" + settings.serverPort,
+                    "--logging.level.org.springframework.web.reactive.function.client.ExchangeFunctions=INFO");
+            return applications;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            applications.close();
+            throw e;
+        }
+    }
+
+    private void start(String name, Path jar, Path workDir, int port, String... args)
+            throws IOException, InterruptedException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException("No " + name + " jar at " + jar + ", build it with mvn package first");
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-jar");
+        command.add(jar.toString());
+        command.addAll(List.of(args));
+
+        Path log = workDir.resolve(name + ".log");
+        Files.createDirectories(workDir);
+        System.out.printf("Starting %s on port %d, log %s%n", name, port, log);
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        processes.add(process);
+        awaitHealthy(name, process, port, log);
+    }
+
+    private void awaitHealthy(String name, Process process, int port, Path log) throws InterruptedException {
+        HttpRequest health = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited with code " + process.exitValue() + ", see " + log);
+            }
+            try {
+                if (httpClient.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(name + " did not start in " + STARTUP_TIMEOUT + ", see " + log);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        for (int i = processes.size() - 1; i >= 0; i--) {
+            Process process = processes.get(i);
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+        processes.clear();
+    }
+}
@@ -0,0 +1,181 @@
+package ru.practicum.shareit.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A rental shop seen through the gateway: owners list items, some of them for open requests, bookers search,
+ * book and check their bookings, owners check and approve bookings of their items.
+ * Every booking gets a slot of its own, so bookings never conflict and the mix stays the same during the run.
+ */
+final class RentalWorkload {
+    static final String SEARCH = "GET /items/search";
+    static final String BOOKER_BOOKINGS = "GET /bookings";
+    static final String OWNER_BOOKINGS = "GET /bookings/owner";
+    static final String POST_BOOKING = "POST /bookings";
+    static final String APPROVE_BOOKING = "PATCH /bookings/{id}";
+
+    private static final String[] SEARCH_TEXTS = {"drill", "saw", "tent", "bike", "ladder", "kayak"};
+    private static final String[] STATES = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"};
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final int PAGE_SIZE = 20;
+    private static final int SEED_BOOKINGS_PER_BOOKER = 5;
+
+    private final ShareItApi api;
+    private final LatencyReport report;
+    private final List<Long> owners = new ArrayList<>();
+    private final List<Long> bookers = new ArrayList<>();
+    private final List<long[]> items = new ArrayList<>();
+    private final Queue<long[]> waitingBookings = new ConcurrentLinkedQueue<>();
+    private final LocalDateTime firstSlot = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    private final AtomicLong nextSlot = new AtomicLong();
+
+    RentalWorkload(ShareItApi api, LatencyReport report) {
+        this.api = api;
+        this.report = report;
+    }
+
+    void seed(LoadTestSettings settings) {
+        for (int i = 0; i < settings.owners; i++) {
+            owners.add(postUser("owner" + i));
+        }
+        for (int i = 0; i < settings.bookers; i++) {
+            bookers.add(postUser("booker" + i));
+        }
+
+        List<Long> requests = new ArrayList<>();
+        for (int i = 0; i < bookers.size(); i += 4) {
+            JsonNode request = api.postOrFail("/requests", bookers.get(i),
+                    Map.of("description", "Looking for a " + SEARCH_TEXTS[i % SEARCH_TEXTS.length]));
+            requests.add(request.get("id").asLong());
+        }
+
+        int requestIndex = 0;
+        for (long owner : owners) {
+            List<Map<String, Object>> ownerItems = new ArrayList<>(settings.itemsPerOwner);
+            for (int i = 0; i < settings.itemsPerOwner; i++) {
+                String text = SEARCH_TEXTS[(int) ((owner + i) % SEARCH_TEXTS.length)];
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("name", text + " " + owner + "-" + i);
+                item.put("description", "A " + text + " in good condition");
+                item.put("available", i % 10 != 9);
+                if (i == 0 && requestIndex < requests.size()) {
+                    item.put("requestId", requests.get(requestIndex++));
+                }
+                ownerItems.add(item);
+            }
+            for (JsonNode item : api.postOrFail("/items/batch", owner, ownerItems)) {
+                if (item.get("available").asBoolean()) {
+                    items.add(new long[]{item.get("id").asLong(), owner});
+                }
+            }
+        }
+
+        for (long booker : bookers) {
+            List<Map<String, Object>> bookings = new ArrayList<>(SEED_BOOKINGS_PER_BOOKER);
+            List<long[]> bookedItems = new ArrayList<>(SEED_BOOKINGS_PER_BOOKER);
+            for (int i = 0; i < SEED_BOOKINGS_PER_BOOKER; i++) {
+                long[] item = randomItem();
+                bookedItems.add(item);
+                bookings.add(bookingRequest(item[0]));
+            }
+            JsonNode posted = api.postOrFail("/bookings/batch", booker, bookings);
+            for (int i = 0; i < posted.size(); i++) {
+                long bookingId = posted.get(i).get("id").asLong();
+                long owner = bookedItems.get(i)[1];
+                if (i % 2 == 0) {
+                    api.patch("/bookings/" + bookingId + "?approved=" + (i % 4 == 0), owner);
+                } else {
+                    waitingBookings.add(new long[]{bookingId, owner});
+                }
+            }
+        }
+        System.out.printf("Seeded %d owners, %d bookers, %d requests, %d available items, %d bookings%n",
+                owners.size(), bookers.size(), requests.size(), items.size(),
+                (long) bookers.size() * SEED_BOOKINGS_PER_BOOKER);
+    }
+
+    /**
+     * Runs one operation of the mix: 35% search, 20% booker bookings, 20% owner bookings, 15% new bookings
+     * and 10% approvals of waiting bookings.
+     */
+    void runOperation() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int dice = random.nextInt(100);
+        if (dice < 35) {
+            String text = SEARCH_TEXTS[random.nextInt(SEARCH_TEXTS.length)];
+            get(SEARCH, "/items/search?text=" + text + "&from=0&size=" + PAGE_SIZE, randomOf(bookers));
+        } else if (dice < 55) {
+            get(BOOKER_BOOKINGS, "/bookings?state=" + randomState() + "&from=0&size=" + PAGE_SIZE,
+                    randomOf(bookers));
+        } else if (dice < 75) {
+            get(OWNER_BOOKINGS, "/bookings/owner?state=" + randomState() + "&from=0&size=" + PAGE_SIZE,
+                    randomOf(owners));
+        } else if (dice < 90 || !approveBooking(random)) {
+            postBooking();
+        }
+    }
+
+    private void get(String endpoint, String path, long userId) {
+        long start = System.nanoTime();
+        ShareItApi.Response response = api.get(path, userId);
+        report.record(endpoint, start, response.isSuccessful());
+    }
+
+    private void postBooking() {
+        long[] item = randomItem();
+        long start = System.nanoTime();
+        ShareItApi.Response response = api.post("/bookings", randomOf(bookers), bookingRequest(item[0]));
+        report.record(POST_BOOKING, start, response.isSuccessful());
+        if (response.isSuccessful()) {
+            waitingBookings.add(new long[]{response.json().get("id").asLong(), item[1]});
+        }
+    }
+
+    private boolean approveBooking(ThreadLocalRandom random) {
+        long[] booking = waitingBookings.poll();
+        if (booking == null) {
+            return false;
+        }
+        long start = System.nanoTime();
+        ShareItApi.Response response = api.patch("/bookings/" + booking[0] + "?approved=" + random.nextBoolean(),
+                booking[1]);
+        report.record(APPROVE_BOOKING, start, response.isSuccessful());
+        return true;
+    }
+
+    private long postUser(String name) {
+        return api.postOrFail("/users", null, Map.of("name", name, "email", name + "@load.test"))
+                .get("id").asLong();
+    }
+
+    private Map<String, Object> bookingRequest(long itemId) {
+        LocalDateTime start = firstSlot.plusHours(nextSlot.getAndIncrement());
+        return Map.of("itemId", itemId,
+                "start", DATE_TIME.format(start),
+                "end", DATE_TIME.format(start.plusMinutes(30)));
+    }
+
+    private long[] randomItem() {
+        return items.get(ThreadLocalRandom.current().nextInt(items.size()));
+    }
+
+    private static long randomOf(List<Long> users) {
+        return users.get(ThreadLocalRandom.current().nextInt(users.size()));
+    }
+
+    private static String randomState() {
+        return STATES[ThreadLocalRandom.current().nextInt(STATES.length)];
+    }
+}
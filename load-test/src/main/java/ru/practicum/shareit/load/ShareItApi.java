@@ -0,0 +1,98 @@
+package ru.practicum.shareit.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Blocking JSON calls to the gateway, one HTTP/1.1 connection per concurrent caller as a browser would use.
+ */
+final class ShareItApi {
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    ShareItApi(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    Response get(String path, long userId) {
+        return send("GET", path, userId, null);
+    }
+
+    Response post(String path, long userId, Object body) {
+        return send("POST", path, userId, body);
+    }
+
+    Response patch(String path, long userId) {
+        return send("PATCH", path, userId, null);
+    }
+
+    /**
+     * Seeding calls must succeed, the run makes no sense on a half seeded database.
+     */
+    JsonNode postOrFail(String path, Long userId, Object body) {
+        Response response = send("POST", path, userId, body);
+        if (!response.isSuccessful()) {
+            throw new IllegalStateException("POST " + path + " answered " + response.status + ": " + response.body);
+        }
+        return response.json();
+    }
+
+    private Response send(String method, String path, Long userId, Object body) {
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(TIMEOUT)
+                    .header("Accept", "application/json")
+                    .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                            : HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)));
+            if (body != null) {
+                request.header("Content-Type", "application/json");
+            }
+            if (userId != null) {
+                request.header("X-Sharer-User-Id", String.valueOf(userId));
+            }
+            HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            return new Response(response.statusCode(), response.body());
+        } catch (IOException e) {
+            return new Response(0, e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Response(0, e.toString());
+        }
+    }
+
+    final class Response {
+        final int status;
+        final String body;
+
+        private Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        boolean isSuccessful() {
+            return status >= 200 && status < 300;
+        }
+
+        JsonNode json() {
+            try {
+                return mapper.readTree(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
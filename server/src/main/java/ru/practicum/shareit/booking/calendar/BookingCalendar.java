@@ -0,0 +1,187 @@
+package ru.practicum.shareit.booking.calendar;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.FreeSlot;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingView;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Per-item calendars of WAITING and APPROVED bookings that have not ended yet.
+ * A calendar is loaded from the database the first time its item is touched and is kept in sync
+ * by {@link #reserve} and {@link #release} afterwards. Calendars left without bookings are dropped
+ * by {@link #evictEmpty()}, so only items with bookings ahead stay in memory.
+ */
+@Slf4j
+@Component
+public class BookingCalendar {
+    public static final List<BookingStatus> BLOCKING_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final ItemLockStripes itemLocks;
+    private final ConcurrentMap<Long, ItemCalendar> calendars = new ConcurrentHashMap<>();
+    private final AtomicLong deletions = new AtomicLong();
+
+    public BookingCalendar(BookingRepository bookingRepository, ItemLockStripes itemLocks) {
+        this.bookingRepository = bookingRepository;
+        this.itemLocks = itemLocks;
+    }
+
+    public boolean isFree(long itemId, LocalDateTime start, LocalDateTime end) {
+        return getCalendar(itemId).isFree(start, end);
+    }
+
+    /**
+     * Puts the booking into its item calendar right away, so that overlapping bookings are refused while the
+     * current transaction is still running, and takes it out again if the transaction rolls back.
+     */
+    public void reserve(Booking booking) {
+        long itemId = booking.getItem().getId();
+        long bookingId = booking.getId();
+        getCalendar(itemId).add(bookingId, booking.getStart(), booking.getEnd());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        ItemCalendar calendar = calendars.get(itemId);
+                        if (calendar != null) {
+                            calendar.remove(bookingId);
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Frees the booking's interval once the current transaction commits.
+     */
+    public void release(Booking booking) {
+        long itemId = booking.getItem().getId();
+        long bookingId = booking.getId();
+        afterCommit(() -> getCalendar(itemId).remove(bookingId));
+    }
+
+    /**
+     * Drops the calendars of items deleted in the database with their owner once the current transaction commits.
+     */
+    public void evict(Collection<Long> itemIds) {
+        afterCommit(() -> {
+            synchronized (deletions) {
+                deletions.incrementAndGet();
+                itemIds.forEach(calendars::remove);
+            }
+        });
+    }
+
+    /**
+     * Frees the intervals of bookings deleted in the database with their booker once the current transaction
+     * commits. Calendars that are not loaded are left alone, they read the remaining bookings when they are.
+     */
+    public void releaseAll(Collection<ItemBookingView> bookings) {
+        afterCommit(() -> {
+            synchronized (deletions) {
+                deletions.incrementAndGet();
+                for (ItemBookingView booking : bookings) {
+                    ItemCalendar calendar = calendars.get(booking.getItemId());
+                    if (calendar != null) {
+                        calendar.remove(booking.getId());
+                    }
+                }
+            }
+        });
+    }
+
+    public List<FreeSlot> getFreeSlots(long itemId, LocalDateTime from, LocalDateTime to) {
+        return getCalendar(itemId).getFreeSlots(from, to);
+    }
+
+    /**
+     * Drops calendars whose bookings have all ended, they are loaded again the next time their item is touched.
+     * A calendar is checked under its item's lock, so a booking being admitted never lands in a dropped calendar,
+     * and calendars of items that are being booked right now are left for the next run.
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking-calendar.evict-delay:60000}")
+    public void evictEmpty() {
+        LocalDateTime now = LocalDateTime.now();
+        int evicted = 0;
+        for (Map.Entry<Long, ItemCalendar> entry : calendars.entrySet()) {
+            Lock itemLock = itemLocks.get(entry.getKey());
+            if (!itemLock.tryLock()) {
+                continue;
+            }
+            try {
+                ItemCalendar calendar = entry.getValue();
+                calendar.prune(now);
+                if (calendar.size() == 0 && calendars.remove(entry.getKey(), calendar)) {
+                    evicted++;
+                }
+            } finally {
+                itemLock.unlock();
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Dropped {} calendars without bookings", evicted);
+        }
+    }
+
+    /**
+     * Returns the item's calendar, loading it outside of the map so that a slow query holds up no other item.
+     */
+    private ItemCalendar getCalendar(long itemId) {
+        ItemCalendar calendar = calendars.get(itemId);
+        while (calendar == null) {
+            long seenDeletions = deletions.get();
+            ItemCalendar loaded = load(itemId);
+            synchronized (deletions) {
+                // bookings deleted while the query ran may still be in its result, such a calendar is loaded again
+                calendar = calendars.get(itemId);
+                if (calendar == null && deletions.get() == seenDeletions) {
+                    calendars.put(itemId, loaded);
+                    calendar = loaded;
+                }
+            }
+        }
+        calendar.prune(LocalDateTime.now());
+        return calendar;
+    }
+
+    private ItemCalendar load(long itemId) {
+        List<BookingIntervalView> bookings = bookingRepository.findByItem_IdAndStatusInAndEndIsAfter(itemId,
+                BLOCKING_STATUSES, LocalDateTime.now());
+        ItemCalendar calendar = new ItemCalendar();
+        for (BookingIntervalView booking : bookings) {
+            calendar.add(booking.getId(), booking.getStart(), booking.getEnd());
+        }
+        log.debug("Loaded calendar of item {} with {} bookings", itemId, calendar.size());
+        return calendar;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.booking.calendar;
+
+import ru.practicum.shareit.booking.dto.FreeSlot;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Booked intervals of a single item ordered by start. Intervals never overlap: bookings admitted through
+ * {@link BookingCalendar} are checked first, and overlapping bookings found in the database are merged
+ * into one interval that remembers the range of every booking it holds.
+ */
+class ItemCalendar {
+    private final TreeMap<LocalDateTime, Interval> intervals = new TreeMap<>();
+    private final Map<Long, Interval> intervalsByBooking = new HashMap<>();
+
+    synchronized boolean isFree(LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, Interval> floor = intervals.floorEntry(start);
+        if (floor != null && floor.getValue().end.isAfter(start)) {
+            return false;
+        }
+        Map.Entry<LocalDateTime, Interval> higher = intervals.higherEntry(start);
+        return higher == null || !higher.getKey().isBefore(end);
+    }
+
+    synchronized void add(long bookingId, LocalDateTime start, LocalDateTime end) {
+        if (intervalsByBooking.containsKey(bookingId)) {
+            return;
+        }
+        Map.Entry<LocalDateTime, Interval> floor = intervals.floorEntry(start);
+        LocalDateTime from = floor != null && floor.getValue().end.isAfter(start) ? floor.getKey() : start;
+        Interval merged = new Interval(from, end);
+        merged.bookings.put(bookingId, new LocalDateTime[]{start, end});
+
+        Iterator<Interval> overlapping = intervals.subMap(from, true, end, false).values().iterator();
+        while (overlapping.hasNext()) {
+            Interval interval = overlapping.next();
+            merged.absorb(interval);
+            overlapping.remove();
+        }
+        put(merged);
+    }
+
+    synchronized void remove(long bookingId) {
+        Interval interval = intervalsByBooking.remove(bookingId);
+        if (interval == null) {
+            return;
+        }
+        intervals.remove(interval.start);
+        interval.bookings.remove(bookingId);
+
+        List<Map.Entry<Long, LocalDateTime[]>> rest = new ArrayList<>(interval.bookings.entrySet());
+        rest.sort(Comparator.comparing(entry -> entry.getValue()[0]));
+        Interval current = null;
+        for (Map.Entry<Long, LocalDateTime[]> booking : rest) {
+            LocalDateTime[] range = booking.getValue();
+            if (current == null || !range[0].isBefore(current.end)) {
+                if (current != null) {
+                    put(current);
+                }
+                current = new Interval(range[0], range[1]);
+            } else if (range[1].isAfter(current.end)) {
+                current.end = range[1];
+            }
+            current.bookings.put(booking.getKey(), range);
+        }
+        if (current != null) {
+            put(current);
+        }
+    }
+
+    synchronized void prune(LocalDateTime now) {
+        while (!intervals.isEmpty() && !intervals.firstEntry().getValue().end.isAfter(now)) {
+            Interval interval = intervals.pollFirstEntry().getValue();
+            interval.bookings.keySet().forEach(intervalsByBooking::remove);
+        }
+    }
+
+    synchronized List<FreeSlot> getFreeSlots(LocalDateTime from, LocalDateTime to) {
+        List<FreeSlot> slots = new ArrayList<>();
+        LocalDateTime cursor = from;
+        Map.Entry<LocalDateTime, Interval> floor = intervals.floorEntry(from);
+        LocalDateTime first = floor != null ? floor.getKey() : from;
+        for (Interval interval : intervals.subMap(first, true, to, false).values()) {
+            if (interval.start.isAfter(cursor)) {
+                slots.add(new FreeSlot(cursor, interval.start));
+            }
+            if (interval.end.isAfter(cursor)) {
+                cursor = interval.end;
+            }
+        }
+        if (cursor.isBefore(to)) {
+            slots.add(new FreeSlot(cursor, to));
+        }
+        return slots;
+    }
+
+    synchronized int size() {
+        return intervalsByBooking.size();
+    }
+
+    private void put(Interval interval) {
+        intervals.put(interval.start, interval);
+        interval.bookings.keySet().forEach(bookingId -> intervalsByBooking.put(bookingId, interval));
+    }
+
+    private static final class Interval {
+        private final LocalDateTime start;
+        private LocalDateTime end;
+        private final Map<Long, LocalDateTime[]> bookings = new HashMap<>();
+
+        private Interval(LocalDateTime start, LocalDateTime end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        private void absorb(Interval other) {
+            if (other.end.isAfter(end)) {
+                end = other.end;
+            }
+            bookings.putAll(other.bookings);
+        }
+    }
+}
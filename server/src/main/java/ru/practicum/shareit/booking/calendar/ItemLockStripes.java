@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.calendar;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed pool of locks shared between items by id. Bookings of one item are admitted one at a time,
+ * while items falling on different stripes never wait for each other.
+ */
+@Component
+public class ItemLockStripes {
+    private static final int STRIPES = 256;
+    private static final long SPREAD = 0x9E3779B97F4A7C15L;
+
+    private final Lock[] locks = new Lock[STRIPES];
+
+    public ItemLockStripes() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public Lock get(long itemId) {
+        return locks[Math.floorMod(Long.hashCode(itemId * SPREAD), STRIPES)];
+    }
+}
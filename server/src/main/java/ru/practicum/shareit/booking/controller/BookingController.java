@@ -1,11 +1,14 @@
 package ru.practicum.shareit.booking.controller;
 
 import com.fasterxml.jackson.databind.JsonMappingException;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingSlice;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.dto.RequestBooking;
 import ru.practicum.shareit.booking.dto.ResponseBooking;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.TotalCountCache;
 
 import java.util.List;
 
@@ -15,6 +18,8 @@ import java.util.List;
 @RestController
 @RequestMapping(path = "/bookings")
 public class BookingController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
 
     public BookingController(BookingService bookingService) {
@@ -27,6 +32,12 @@ public class BookingController {
         return bookingService.postBooking(userId, bookingDto);
     }
 
+    @PostMapping("/batch")
+    public List<ResponseBooking> postBookings(@RequestHeader(value = "X-Sharer-User-Id", required = true) Long userId,
+                                              @RequestBody List<RequestBooking> bookingDtos) {
+        return bookingService.postBookings(userId, bookingDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseBooking updateBookingStatus(@RequestHeader(value = "X-Sharer-User-Id", required = true) Long userId,
                                                @RequestParam("approved") Boolean isApproved,
@@ -41,22 +52,48 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<ResponseBooking> getAllByBooker(@RequestHeader(value = "X-Sharer-User-Id", required = true) Long userId,
-                                                @RequestParam(value = "state", defaultValue = "ALL", required = false)
-                                                BookingState state,
-                                                @RequestParam(defaultValue = "0") int from,
-                                                @RequestParam(defaultValue = "10") int size) {
-
-        return bookingService.getAllBookingsByBooker(state, userId, from, size);
+    public ResponseEntity<List<ResponseBooking>> getAllByBooker(@RequestHeader(value = "X-Sharer-User-Id", required = true) Long userId,
+                                                                @RequestParam(value = "state", defaultValue = "ALL", required = false)
+                                                                BookingState state,
+                                                                @RequestParam(defaultValue = "0") int from,
+                                                                @RequestParam(defaultValue = "10") int size,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(defaultValue = "false") boolean total) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (total) {
+            response.header(TotalCountCache.TOTAL_COUNT_HEADER,
+                    String.valueOf(bookingService.countBookingsByBooker(state, userId)));
+        }
+        if (cursor == null) {
+            return response.body(bookingService.getAllBookingsByBooker(state, userId, from, size));
+        }
+        return toResponse(response, bookingService.getBookingSliceByBooker(state, userId, cursor, size));
     }
 
     @GetMapping("/owner")
-    public List<ResponseBooking> getAllByItemOwner(@RequestHeader(value = "X-Sharer-User-Id", required = true) Long userId,
-                                                   @RequestParam(value = "state", defaultValue = "ALL", required = false)
-                                                   BookingState state,
-                                                   @RequestParam(defaultValue = "0") int from,
-                                                   @RequestParam(defaultValue = "10") int size) {
+    public ResponseEntity<List<ResponseBooking>> getAllByItemOwner(@RequestHeader(value = "X-Sharer-User-Id", required = true) Long userId,
+                                                                   @RequestParam(value = "state", defaultValue = "ALL", required = false)
+                                                                   BookingState state,
+                                                                   @RequestParam(defaultValue = "0") int from,
+                                                                   @RequestParam(defaultValue = "10") int size,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(defaultValue = "false") boolean total) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (total) {
+            response.header(TotalCountCache.TOTAL_COUNT_HEADER,
+                    String.valueOf(bookingService.countBookingsByItemOwner(state, userId)));
+        }
+        if (cursor == null) {
+            return response.body(bookingService.getAllBookingsByItemOwner(state, userId, from, size));
+        }
+        return toResponse(response, bookingService.getBookingSliceByItemOwner(state, userId, cursor, size));
+    }
 
-        return bookingService.getAllBookingsByItemOwner(state, userId, from, size);
+    private static ResponseEntity<List<ResponseBooking>> toResponse(ResponseEntity.BodyBuilder response,
+                                                                    BookingSlice slice) {
+        if (slice.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, slice.getNextCursor());
+        }
+        return response.body(slice.getBookings());
     }
 }
@@ -22,4 +22,14 @@ public class ResponseBooking {
     private ItemDto item;
     private UserDto booker;
     private BookingStatus status;
+
+    /**
+     * Used by constructor expressions of read-only queries, which select flat columns instead of entities.
+     */
+    public ResponseBooking(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status, Long itemId,
+                           String itemName, String itemDescription, Boolean itemAvailable, Long itemRequestId,
+                           Long bookerId, String bookerName, String bookerEmail) {
+        this(id, start, end, new ItemDto(itemId, itemName, itemDescription, itemAvailable, itemRequestId),
+                new UserDto(bookerId, bookerName, bookerEmail), status);
+    }
 }
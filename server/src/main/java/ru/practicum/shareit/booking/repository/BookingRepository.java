@@ -1,56 +1,73 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.calendar.BookingIntervalView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.summary.ItemBookingView;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    Page<Booking> findByBooker_IdAndStatusOrderByStartDesc(Long bookerId, BookingStatus status, Pageable page);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Override
+    Optional<Booking> findById(Long id);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     Optional<Booking> findByIdAndItemOwnerId(long bookingId, long ownerId);
 
-    Page<Booking> findByBooker_IdOrderByStartDesc(Long bookerId, Pageable page);
-
-    Page<Booking> findByBooker_IdAndEndIsBeforeOrderByStartDesc(Long bookerId, LocalDateTime end, Pageable page);
-
-    Page<Booking> findByBooker_IdAndStartIsAfterOrderByStartDesc(Long bookerId, LocalDateTime start, Pageable page);
-
-    @Query("select b from Booking b where b.item.owner.id = ?1 order by b.start desc")
-    Page<Booking> findByOwner_IdOrderByStartDesc(Long ownerId, Pageable page);
-
-    @Query("select b from Booking b where b.item.owner.id = ?1  and b.start <= ?2 and b.end >= ?3 order by b.start asc")
-    Page<Booking> findByOwner_IdAndStateCurrent(Long ownerId, LocalDateTime start, LocalDateTime end, Pageable page);
-
-    @Query("select b from Booking b where b.item.owner.id = ?1 and b.end <= ?2 order by b.start desc")
-    Page<Booking> findByOwner_IdAndStatePast(Long ownerId, LocalDateTime end, Pageable page);
-
-    @Query("select b from Booking b where b.item.owner.id = ?1 and b.start >= ?2 order by b.start desc")
-    Page<Booking> findByOwner_IdAndStateFuture(Long ownerId, LocalDateTime start, Pageable page);
-
-    @Query("select b from Booking b where b.item.owner.id = ?1 and b.status = ?2 order by b.start desc")
-    Page<Booking> findByOwner_IdAndStatus(Long ownerId, BookingStatus status, Pageable page);
-
-    List<Booking> findByItem_IdIn(Set<Long> ids);
-
     Boolean existsBookingByItemIdAndBookerIdAndEndIsBefore(long itemId, long userId, LocalDateTime now);
 
-    Page<Booking> findByBooker_IdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(Long bookerId, LocalDateTime start,
-                                                                               LocalDateTime end, Pageable page);
+    // the item is matched on bookings.item_id: derived queries on Item_Id join items and filter on items.id, which
+    // H2 serves by scanning bookings; a @Query ignores findFirst, so the first row is taken through a page of one
+    @Query("select b from Booking b where b.item.id = ?1 and b.status <> ?2 and b.start > ?3 order by b.start asc")
+    List<Booking> findNextBookings(long itemId, BookingStatus status, LocalDateTime now, Pageable page);
 
-    Optional<Booking> findFirstBookingByItem_IdAndStatusNotAndStartAfterOrderByStartAsc(long itemId, BookingStatus status,
-                                                                                        LocalDateTime now);
+    @Query("select b from Booking b where b.item.id = ?1 and b.status <> ?2 and b.start < ?3 order by b.start desc")
+    List<Booking> findLastBookings(long itemId, BookingStatus status, LocalDateTime now, Pageable page);
 
-    Optional<Booking> findFirstBookingByItem_IdAndStatusNotAndStartBeforeOrderByStartDesc(long itemId,
-                                                                                          BookingStatus status,
-                                                                                          LocalDateTime now);
+    default Optional<Booking> findFirstBookingByItem_IdAndStatusNotAndStartAfterOrderByStartAsc(long itemId,
+                                                                                        BookingStatus status,
+                                                                                        LocalDateTime now) {
+        return findNextBookings(itemId, status, now, PageRequest.ofSize(1)).stream().findFirst();
+    }
 
+    default Optional<Booking> findFirstBookingByItem_IdAndStatusNotAndStartBeforeOrderByStartDesc(long itemId,
+                                                                                          BookingStatus status,
+                                                                                          LocalDateTime now) {
+        return findLastBookings(itemId, status, now, PageRequest.ofSize(1)).stream().findFirst();
+    }
+
+    @Query(value = "select r.id as \"id\", r.item_id as \"itemId\", r.start_date as \"start\", " +
+            "r.end_date as \"end\", r.booker_id as \"bookerId\" from (" +
+            "select b.id, b.item_id, b.start_date, b.end_date, b.booker_id, row_number() over (" +
+            "partition by b.item_id, case when b.start_date < ?2 then 0 else 1 end " +
+            "order by case when b.start_date < ?2 then b.start_date end desc, " +
+            "case when b.start_date > ?2 then b.start_date end asc) as position " +
+            "from bookings b where b.item_id in (?1) and b.status <> 'REJECTED' and b.start_date <> ?2) r " +
+            "where r.position = 1", nativeQuery = true)
+    List<ItemBookingView> findLastAndNextByItemIds(Collection<Long> itemIds, LocalDateTime now);
+
+    @Query("select b.id as id, b.item.id as itemId, b.start as start, b.end as end, b.booker.id as bookerId " +
+            "from Booking b where b.booker.id = ?1")
+    List<ItemBookingView> findItemBookingsByBookerId(long bookerId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = ?4, b.version = b.version + 1 where b.id = ?1 and b.status = ?3 " +
+            "and b.item.id in (select i.id from Item i where i.owner.id = ?2)")
+    int updateStatus(long bookingId, long ownerId, BookingStatus oldStatus, BookingStatus newStatus);
+
+    @Query("select b.id as id, b.start as start, b.end as end from Booking b " +
+            "where b.item.id = ?1 and b.status in ?2 and b.end > ?3")
+    List<BookingIntervalView> findByItem_IdAndStatusInAndEndIsAfter(long itemId, Collection<BookingStatus> statuses,
+                                                                    LocalDateTime now);
 }
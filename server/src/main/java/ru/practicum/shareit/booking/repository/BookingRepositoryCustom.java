@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.dto.ResponseBooking;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+    List<ResponseBooking> findBookerResponses(long bookerId, BookingState state, LocalDateTime now, int offset,
+                                              int limit);
+
+    List<ResponseBooking> findOwnerResponses(long ownerId, BookingState state, LocalDateTime now, int offset,
+                                             int limit);
+
+    List<ResponseBooking> findBookerSlice(long bookerId, BookingState state, LocalDateTime now, BookingCursor after,
+                                          int limit);
+
+    List<ResponseBooking> findOwnerSlice(long ownerId, BookingState state, LocalDateTime now, BookingCursor after,
+                                         int limit);
+
+    long countBooker(long bookerId, BookingState state, LocalDateTime now);
+
+    long countOwner(long ownerId, BookingState state, LocalDateTime now);
+}
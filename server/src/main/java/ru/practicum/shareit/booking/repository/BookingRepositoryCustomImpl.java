@@ -0,0 +1,150 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.dto.ResponseBooking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Read-only booking lists selected straight into {@link ResponseBooking}, so no entities are hydrated or tracked
+ * by the persistence context. Lists are paged either by offset or by keyset: a keyset page continues right after
+ * the (start, id) of the previous one, so deep pages cost the same as the first and no count query is needed.
+ * State filters match the entity queries of {@link BookingRepository}; the count queries use the same
+ * filters and are only run when a client asks for totals.
+ */
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+    private static final String SELECT_RESPONSE = "select new ru.practicum.shareit.booking.dto.ResponseBooking(" +
+            "b.id, b.start, b.end, b.status, i.id, i.name, i.description, i.available, i.request.id, " +
+            "u.id, u.name, u.email) from Booking b join b.item i join b.booker u where ";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<ResponseBooking> findBookerResponses(long bookerId, BookingState state, LocalDateTime now,
+                                                     int offset, int limit) {
+        return find("u.id = :userId", bookerId, state, getBookerCondition(state), false, now, null, offset,
+                limit);
+    }
+
+    @Override
+    public List<ResponseBooking> findOwnerResponses(long ownerId, BookingState state, LocalDateTime now,
+                                                    int offset, int limit) {
+        return find("i.owner.id = :userId", ownerId, state, getOwnerCondition(state), state == BookingState.CURRENT,
+                now, null, offset, limit);
+    }
+
+    @Override
+    public List<ResponseBooking> findBookerSlice(long bookerId, BookingState state, LocalDateTime now,
+                                                 BookingCursor after, int limit) {
+        return find("u.id = :userId", bookerId, state, getBookerCondition(state), false, now, after, 0, limit);
+    }
+
+    @Override
+    public List<ResponseBooking> findOwnerSlice(long ownerId, BookingState state, LocalDateTime now,
+                                                BookingCursor after, int limit) {
+        return find("i.owner.id = :userId", ownerId, state, getOwnerCondition(state), state == BookingState.CURRENT,
+                now, after, 0, limit);
+    }
+
+    @Override
+    public long countBooker(long bookerId, BookingState state, LocalDateTime now) {
+        return count("b.booker.id = :userId", bookerId, state, getBookerCondition(state), now);
+    }
+
+    @Override
+    public long countOwner(long ownerId, BookingState state, LocalDateTime now) {
+        return count("b.item.owner.id = :userId", ownerId, state, getOwnerCondition(state), now);
+    }
+
+    private List<ResponseBooking> find(String userCondition, long userId, BookingState state, String stateCondition,
+                                       boolean ascending, LocalDateTime now, BookingCursor after, int offset,
+                                       int limit) {
+        StringBuilder jpql = new StringBuilder(SELECT_RESPONSE).append(userCondition).append(stateCondition);
+        BookingStatus status = getStatus(state);
+        if (status != null) {
+            jpql.append(" and b.status = :status");
+        }
+        if (after != null) {
+            // the redundant range on start lets the database seek the (user, start) index
+            jpql.append(ascending
+                    ? " and b.start >= :afterStart and (b.start > :afterStart or b.id > :afterId)"
+                    : " and b.start <= :afterStart and (b.start < :afterStart or b.id < :afterId)");
+        }
+        jpql.append(ascending ? " order by b.start asc, b.id asc" : " order by b.start desc, b.id desc");
+
+        TypedQuery<ResponseBooking> query = em.createQuery(jpql.toString(), ResponseBooking.class)
+                .setParameter("userId", userId)
+                .setFirstResult(offset)
+                .setMaxResults(limit);
+        setStateParameters(query, stateCondition, now, status);
+        if (after != null) {
+            query.setParameter("afterStart", after.getStart());
+            query.setParameter("afterId", after.getId());
+        }
+        return query.getResultList();
+    }
+
+    private long count(String userCondition, long userId, BookingState state, String stateCondition,
+                       LocalDateTime now) {
+        StringBuilder jpql = new StringBuilder("select count(b) from Booking b where ").append(userCondition)
+                .append(stateCondition);
+        BookingStatus status = getStatus(state);
+        if (status != null) {
+            jpql.append(" and b.status = :status");
+        }
+        TypedQuery<Long> query = em.createQuery(jpql.toString(), Long.class)
+                .setParameter("userId", userId);
+        setStateParameters(query, stateCondition, now, status);
+        return query.getSingleResult();
+    }
+
+    private static void setStateParameters(TypedQuery<?> query, String stateCondition, LocalDateTime now,
+                                           BookingStatus status) {
+        if (!stateCondition.isEmpty()) {
+            query.setParameter("now", now);
+        }
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+    }
+
+    private static BookingStatus getStatus(BookingState state) {
+        if (state == BookingState.WAITING || state == BookingState.REJECTED) {
+            return BookingStatus.valueOf(state.name());
+        }
+        return null;
+    }
+
+    private static String getBookerCondition(BookingState state) {
+        switch (state) {
+            case PAST:
+                return " and b.end < :now";
+            case CURRENT:
+                return " and b.start < :now and b.end > :now";
+            case FUTURE:
+                return " and b.start > :now";
+            default:
+                return "";
+        }
+    }
+
+    private static String getOwnerCondition(BookingState state) {
+        switch (state) {
+            case PAST:
+                return " and b.end <= :now";
+            case CURRENT:
+                return " and b.start <= :now and b.end >= :now";
+            case FUTURE:
+                return " and b.start >= :now";
+            default:
+                return "";
+        }
+    }
+}
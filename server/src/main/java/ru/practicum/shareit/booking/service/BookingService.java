@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking.service;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import ru.practicum.shareit.booking.dto.RequestBooking;
 import ru.practicum.shareit.booking.dto.ResponseBooking;
+import ru.practicum.shareit.booking.dto.BookingSlice;
 import ru.practicum.shareit.booking.dto.BookingState;
 
 import java.util.List;
@@ -10,6 +11,8 @@ import java.util.List;
 public interface BookingService {
     ResponseBooking postBooking(long bookerId, RequestBooking bookingDto);
 
+    List<ResponseBooking> postBookings(long bookerId, List<RequestBooking> bookingDtos);
+
     ResponseBooking updateBookingStatus(long userId, boolean isApproved, long bookingId) throws JsonMappingException;
 
     ResponseBooking getBookingById(long userId, long bookingId);
@@ -17,4 +20,12 @@ public interface BookingService {
     List<ResponseBooking> getAllBookingsByBooker(BookingState bookingState, long userId, int from, int size);
 
     List<ResponseBooking> getAllBookingsByItemOwner(BookingState bookingState, long userId, int from, int size);
+
+    BookingSlice getBookingSliceByBooker(BookingState bookingState, long userId, String cursor, int size);
+
+    BookingSlice getBookingSliceByItemOwner(BookingState bookingState, long userId, String cursor, int size);
+
+    long countBookingsByBooker(BookingState bookingState, long userId);
+
+    long countBookingsByItemOwner(BookingState bookingState, long userId);
 }
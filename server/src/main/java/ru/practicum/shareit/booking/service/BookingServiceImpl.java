@@ -4,22 +4,35 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.calendar.BookingCalendar;
+import ru.practicum.shareit.booking.calendar.ItemLockStripes;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingSlice;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.dto.RequestBooking;
 import ru.practicum.shareit.booking.dto.ResponseBooking;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.IllegalOperationException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.TotalCountCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Transactional(readOnly = true)
 @Service
@@ -29,11 +42,21 @@ public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final BookingCalendar bookingCalendar;
+    private final ItemLockStripes itemLocks;
+    private final ItemBookingSummary itemBookingSummary;
+    private final TotalCountCache totalCounts;
 
-    public BookingServiceImpl(BookingRepository bookingRepository, UserRepository userRepository, ItemRepository itemRepository) {
+    public BookingServiceImpl(BookingRepository bookingRepository, UserRepository userRepository, ItemRepository itemRepository,
+                              BookingCalendar bookingCalendar, ItemLockStripes itemLocks,
+                              ItemBookingSummary itemBookingSummary, TotalCountCache totalCounts) {
         this.bookingRepository = bookingRepository;
         this.userRepository = userRepository;
         this.itemRepository = itemRepository;
+        this.bookingCalendar = bookingCalendar;
+        this.itemLocks = itemLocks;
+        this.itemBookingSummary = itemBookingSummary;
+        this.totalCounts = totalCounts;
     }
 
     @Transactional
@@ -43,7 +66,42 @@ public class BookingServiceImpl implements BookingService {
                 new NotFoundException("Item with id " + bookingDto.getItemId() + " is not found"));
         User booker = userRepository.findById(bookerId).orElseThrow(() -> new NotFoundException("User is not found"));
 
-        if (itemToBook.getOwner().getId() == bookerId) {
+        return BookingMapper.toResponseBooking(saveIfFree(toBooking(bookingDto, itemToBook, booker)));
+    }
+
+    /**
+     * Posts all bookings or none. Items are loaded with one query and every booking is checked before the first
+     * one is saved; bookings of the same item in one batch must not overlap each other either.
+     */
+    @Transactional
+    @Override
+    public List<ResponseBooking> postBookings(long bookerId, List<RequestBooking> bookingDtos) {
+        log.info("Posting {} bookings by user with id {}", bookingDtos.size(), bookerId);
+
+        User booker = userRepository.findById(bookerId).orElseThrow(() -> new NotFoundException("User is not found"));
+        Set<Long> itemIds = bookingDtos.stream()
+                .map(RequestBooking::getItemId)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        if (items.size() < itemIds.size()) {
+            itemIds.removeAll(items.keySet());
+            throw new NotFoundException("Items with ids " + itemIds + " are not found");
+        }
+
+        List<Booking> bookingsToPost = new ArrayList<>(bookingDtos.size());
+        for (RequestBooking bookingDto : bookingDtos) {
+            bookingsToPost.add(toBooking(bookingDto, items.get(bookingDto.getItemId()), booker));
+        }
+        List<ResponseBooking> postedBookings = new ArrayList<>(bookingsToPost.size());
+        for (Booking booking : bookingsToPost) {
+            postedBookings.add(BookingMapper.toResponseBooking(saveIfFree(booking)));
+        }
+        return postedBookings;
+    }
+
+    private static Booking toBooking(RequestBooking bookingDto, Item itemToBook, User booker) {
+        if (itemToBook.getOwner().getId().equals(booker.getId())) {
             throw new NotFoundException("Owner cannot book item");
         }
 
@@ -55,9 +113,26 @@ public class BookingServiceImpl implements BookingService {
 
         bookingToPost.setBooker(booker);
         bookingToPost.setItem(itemToBook);
+        return bookingToPost;
+    }
 
-        log.info("Saving booking {}", bookingToPost);
-        return BookingMapper.toResponseBooking(bookingRepository.save(bookingToPost));
+    private Booking saveIfFree(Booking bookingToPost) {
+        Item itemToBook = bookingToPost.getItem();
+        // the reservation is visible to other requests before commit, so the lock is held only until it is made
+        Lock itemLock = itemLocks.get(itemToBook.getId());
+        itemLock.lock();
+        try {
+            if (!bookingCalendar.isFree(itemToBook.getId(), bookingToPost.getStart(), bookingToPost.getEnd())) {
+                throw new IllegalOperationException("Item with id " + itemToBook.getId() + " is already booked for this period");
+            }
+            log.info("Saving booking {}", bookingToPost);
+            Booking postedBooking = bookingRepository.save(bookingToPost);
+            bookingCalendar.reserve(postedBooking);
+            itemBookingSummary.onBooked(postedBooking);
+            return postedBooking;
+        } finally {
+            itemLock.unlock();
+        }
     }
 
     @Transactional
@@ -65,6 +140,17 @@ public class BookingServiceImpl implements BookingService {
     public ResponseBooking updateBookingStatus(long userId, boolean isApproved, long bookingId) {
         log.info("Updating booking id {} status by user {} to isApproved {}", bookingId, userId, isApproved);
 
+        BookingStatus newStatus = isApproved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (bookingRepository.updateStatus(bookingId, userId, BookingStatus.WAITING, newStatus) == 1) {
+            Booking updatedBooking = bookingRepository.findById(bookingId).orElseThrow(() ->
+                    new NotFoundException("Booking with id " + bookingId + " is not found."));
+            if (!isApproved) {
+                bookingCalendar.release(updatedBooking);
+                itemBookingSummary.onRejected(updatedBooking);
+            }
+            return BookingMapper.toResponseBooking(updatedBooking);
+        }
+
         Booking bookingToUpdate = bookingRepository.findByIdAndItemOwnerId(bookingId, userId).orElseThrow(() ->
                 new NotFoundException("Booking for item with owner id " +  userId + " is not found"));
 
@@ -74,13 +160,30 @@ public class BookingServiceImpl implements BookingService {
         if (bookingToUpdate.getStatus().equals(BookingStatus.REJECTED) && !isApproved) {
             throw new IllegalOperationException("Booking is already rejected");
         }
+        if (bookingToUpdate.getStatus().equals(BookingStatus.WAITING)) {
+            throw new ConflictException("Booking with id " + bookingId + " was changed by another request");
+        }
 
         if (isApproved) {
-            bookingToUpdate.setStatus(BookingStatus.APPROVED);
+            Lock itemLock = itemLocks.get(bookingToUpdate.getItem().getId());
+            itemLock.lock();
+            try {
+                if (!bookingCalendar.isFree(bookingToUpdate.getItem().getId(), bookingToUpdate.getStart(),
+                        bookingToUpdate.getEnd())) {
+                    throw new IllegalOperationException("Item is already booked for the period of booking " + bookingId);
+                }
+                changeStatus(bookingToUpdate, userId, BookingStatus.APPROVED);
+                bookingCalendar.reserve(bookingToUpdate);
+                itemBookingSummary.onBooked(bookingToUpdate);
+            } finally {
+                itemLock.unlock();
+            }
         } else {
-            bookingToUpdate.setStatus(BookingStatus.REJECTED);
+            changeStatus(bookingToUpdate, userId, BookingStatus.REJECTED);
+            bookingCalendar.release(bookingToUpdate);
+            itemBookingSummary.onRejected(bookingToUpdate);
         }
-        return BookingMapper.toResponseBooking(bookingRepository.save(bookingToUpdate));
+        return BookingMapper.toResponseBooking(bookingToUpdate);
     }
 
     @Override
@@ -104,27 +207,8 @@ public class BookingServiceImpl implements BookingService {
         if (!userRepository.existsUserById(userId)) {
             throw new NotFoundException("User with id " + userId + " is not found");
         }
-
-        switch (bookingState) {
-            case PAST:
-                return BookingMapper.toResponseBookingList(bookingRepository.findByBooker_IdAndEndIsBeforeOrderByStartDesc(userId,
-                        LocalDateTime.now(), page));
-            case CURRENT:
-                return BookingMapper.toResponseBookingList(bookingRepository
-                        .findByBooker_IdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(userId, LocalDateTime.now(),
-                                LocalDateTime.now(), page));
-            case FUTURE:
-                return BookingMapper.toResponseBookingList(bookingRepository.findByBooker_IdAndStartIsAfterOrderByStartDesc(userId,
-                        LocalDateTime.now(), page));
-            case WAITING:
-                return BookingMapper.toResponseBookingList(bookingRepository.findByBooker_IdAndStatusOrderByStartDesc(userId,
-                        BookingStatus.WAITING, page));
-            case REJECTED:
-                return BookingMapper.toResponseBookingList(bookingRepository.findByBooker_IdAndStatusOrderByStartDesc(userId,
-                        BookingStatus.REJECTED, page));
-            default:
-                return BookingMapper.toResponseBookingList(bookingRepository.findByBooker_IdOrderByStartDesc(userId, page));
-        }
+        return bookingRepository.findBookerResponses(userId, bookingState, LocalDateTime.now(),
+                (int) page.getOffset(), size);
     }
 
     @Override
@@ -136,25 +220,57 @@ public class BookingServiceImpl implements BookingService {
         if (!userRepository.existsUserById(userId)) {
             throw new NotFoundException("User with id " + userId + " is not found");
         }
+        return bookingRepository.findOwnerResponses(userId, bookingState, LocalDateTime.now(),
+                (int) page.getOffset(), size);
+    }
+
+    @Override
+    public BookingSlice getBookingSliceByBooker(BookingState bookingState, long userId, String cursor, int size) {
+        log.info("Retrieving bookings by user with id {} and state {} after cursor {}", userId, bookingState, cursor);
+
+        if (!userRepository.existsUserById(userId)) {
+            throw new NotFoundException("User with id " + userId + " is not found");
+        }
+        return toSlice(bookingRepository.findBookerSlice(userId, bookingState, LocalDateTime.now(),
+                BookingCursor.decode(cursor), size + 1), size);
+    }
+
+    @Override
+    public BookingSlice getBookingSliceByItemOwner(BookingState bookingState, long userId, String cursor, int size) {
+        log.info("Retrieving bookings of items owned by user with id {} and state {} after cursor {}", userId,
+                bookingState, cursor);
+
+        if (!userRepository.existsUserById(userId)) {
+            throw new NotFoundException("User with id " + userId + " is not found");
+        }
+        return toSlice(bookingRepository.findOwnerSlice(userId, bookingState, LocalDateTime.now(),
+                BookingCursor.decode(cursor), size + 1), size);
+    }
+
+    @Override
+    public long countBookingsByBooker(BookingState bookingState, long userId) {
+        return totalCounts.get("bookings:booker:" + userId + ":" + bookingState,
+                () -> bookingRepository.countBooker(userId, bookingState, LocalDateTime.now()));
+    }
+
+    @Override
+    public long countBookingsByItemOwner(BookingState bookingState, long userId) {
+        return totalCounts.get("bookings:owner:" + userId + ":" + bookingState,
+                () -> bookingRepository.countOwner(userId, bookingState, LocalDateTime.now()));
+    }
+
+    private BookingSlice toSlice(List<ResponseBooking> bookings, int size) {
+        if (bookings.size() <= size) {
+            return new BookingSlice(bookings, null);
+        }
+        List<ResponseBooking> page = new ArrayList<>(bookings.subList(0, size));
+        return new BookingSlice(page, BookingCursor.of(page.get(size - 1)).encode());
+    }
 
-        switch (bookingState) {
-            case PAST:
-                return BookingMapper.toResponseBookingList(bookingRepository.findByOwner_IdAndStatePast(userId,
-                        LocalDateTime.now(), page));
-            case CURRENT:
-                return BookingMapper.toResponseBookingList(bookingRepository.findByOwner_IdAndStateCurrent(userId,
-                        LocalDateTime.now(), LocalDateTime.now(), page));
-            case FUTURE:
-                return BookingMapper.toResponseBookingList(bookingRepository.findByOwner_IdAndStateFuture(userId,
-                        LocalDateTime.now(), page));
-            case WAITING:
-                return BookingMapper.toResponseBookingList(bookingRepository.findByOwner_IdAndStatus(userId,
-                        BookingStatus.WAITING, page));
-            case REJECTED:
-                return BookingMapper.toResponseBookingList(bookingRepository.findByOwner_IdAndStatus(userId,
-                        BookingStatus.REJECTED, page));
-            default:
-                return BookingMapper.toResponseBookingList(bookingRepository.findByOwner_IdOrderByStartDesc(userId, page));
+    private void changeStatus(Booking booking, long ownerId, BookingStatus newStatus) {
+        if (bookingRepository.updateStatus(booking.getId(), ownerId, booking.getStatus(), newStatus) == 0) {
+            throw new ConflictException("Booking with id " + booking.getId() + " was changed by another request");
         }
+        booking.setStatus(newStatus);
     }
 }
@@ -0,0 +1,254 @@
+package ru.practicum.shareit.booking.summary;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Last and next non-rejected booking of every item asked for, so that item pages don't have to query bookings.
+ * A summary is loaded the first time its item is read, updated as bookings are posted or change status,
+ * and moved forward by {@link #advance()} once its next booking has started. Summaries are loaded outside
+ * of the map and dropped once the map holds the configured number of items.
+ */
+@Slf4j
+@Component
+public class ItemBookingSummary {
+    private final BookingRepository bookingRepository;
+    private final int maxItems;
+    private final ConcurrentMap<Long, Summary> summaries = new ConcurrentHashMap<>();
+    private final AtomicLong changes = new AtomicLong();
+
+    public ItemBookingSummary(BookingRepository bookingRepository,
+                              @Value("${shareit.booking-summary.max-items:100000}") int maxItems) {
+        this.bookingRepository = bookingRepository;
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * Returns the item's last and next booking from one summary, so an item whose summary is not kept is loaded
+     * once per read.
+     */
+    public ItemBookings getBookings(long itemId) {
+        Summary summary = get(itemId);
+        return new ItemBookings(summary.last != null ? summary.last.toBookingDto() : null,
+                summary.next != null ? summary.next.toBookingDto() : null);
+    }
+
+    /**
+     * Loads summaries of all given items that are not loaded yet with a single query.
+     */
+    public void preload(Collection<Long> itemIds) {
+        List<Long> missing = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            if (!summaries.containsKey(itemId)) {
+                missing.add(itemId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        long seenChanges = changes.get();
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, BookingRef> last = new HashMap<>();
+        Map<Long, BookingRef> next = new HashMap<>();
+        for (ItemBookingView view : bookingRepository.findLastAndNextByItemIds(missing, now)) {
+            (view.getStart().isBefore(now) ? last : next).put(view.getItemId(), new BookingRef(view));
+        }
+        synchronized (changes) {
+            // a booking committed while the query ran may be missing from its result, such items are loaded one by one
+            if (changes.get() != seenChanges) {
+                return;
+            }
+            makeRoom(now);
+            for (Long itemId : missing) {
+                summaries.putIfAbsent(itemId, new Summary(last.get(itemId), next.get(itemId)));
+            }
+        }
+    }
+
+    /**
+     * Takes a booking that has been posted or approved again into account once the current transaction commits.
+     */
+    public void onBooked(Booking booking) {
+        long itemId = booking.getItem().getId();
+        BookingRef booked = new BookingRef(booking);
+        afterCommit(() -> {
+            synchronized (changes) {
+                changes.incrementAndGet();
+                summaries.computeIfPresent(itemId, (id, summary) -> summary.with(booked, LocalDateTime.now()));
+            }
+        });
+    }
+
+    /**
+     * Drops the summary of the booking's item once the current transaction commits, it is loaded again on next read.
+     */
+    public void onRejected(Booking booking) {
+        long itemId = booking.getItem().getId();
+        afterCommit(() -> {
+            synchronized (changes) {
+                changes.incrementAndGet();
+                summaries.remove(itemId);
+            }
+        });
+    }
+
+    /**
+     * Drops the summaries of the given items once the current transaction commits, for items deleted with their
+     * owner and items whose bookings are deleted with their booker.
+     */
+    public void evict(Collection<Long> itemIds) {
+        afterCommit(() -> {
+            synchronized (changes) {
+                changes.incrementAndGet();
+                itemIds.forEach(summaries::remove);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.advance-delay:60000}")
+    public void advance() {
+        LocalDateTime now = LocalDateTime.now();
+        int advanced = 0;
+        for (Map.Entry<Long, Summary> entry : summaries.entrySet()) {
+            if (entry.getValue().isOutdated(now)) {
+                long seenChanges = changes.get();
+                Summary loaded = load(entry.getKey(), now);
+                synchronized (changes) {
+                    // a summary changed while the query ran stays outdated and is loaded again on next read
+                    if (changes.get() == seenChanges && summaries.replace(entry.getKey(), entry.getValue(), loaded)) {
+                        advanced++;
+                    }
+                }
+            }
+        }
+        if (advanced > 0) {
+            log.debug("Moved booking summaries of {} items forward", advanced);
+        }
+    }
+
+    /**
+     * Returns the item's summary, loading it outside of the map so that the queries hold up no other item.
+     */
+    private Summary get(long itemId) {
+        LocalDateTime now = LocalDateTime.now();
+        Summary summary = summaries.get(itemId);
+        if (summary != null && !summary.isOutdated(now)) {
+            return summary;
+        }
+        long seenChanges = changes.get();
+        Summary loaded = load(itemId, now);
+        synchronized (changes) {
+            // a booking committed while the queries ran may be missing from their result, such a summary is
+            // served to this read only
+            if (changes.get() == seenChanges) {
+                makeRoom(now);
+                summaries.put(itemId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Drops outdated summaries once the map is full, and all of them if that is not enough. Called holding
+     * {@code changes}, like every other put.
+     */
+    private void makeRoom(LocalDateTime now) {
+        if (summaries.size() < maxItems) {
+            return;
+        }
+        summaries.values().removeIf(summary -> summary.isOutdated(now));
+        if (summaries.size() >= maxItems) {
+            log.debug("Booking summary is full, dropping {} summaries", summaries.size());
+            summaries.clear();
+        }
+    }
+
+    private Summary load(long itemId, LocalDateTime now) {
+        BookingRef last = bookingRepository.findFirstBookingByItem_IdAndStatusNotAndStartBeforeOrderByStartDesc(itemId,
+                BookingStatus.REJECTED, now).map(BookingRef::new).orElse(null);
+        BookingRef next = bookingRepository.findFirstBookingByItem_IdAndStatusNotAndStartAfterOrderByStartAsc(itemId,
+                BookingStatus.REJECTED, now).map(BookingRef::new).orElse(null);
+        return new Summary(last, next);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class Summary {
+        private final BookingRef last;
+        private final BookingRef next;
+
+        private Summary(BookingRef last, BookingRef next) {
+            this.last = last;
+            this.next = next;
+        }
+
+        private boolean isOutdated(LocalDateTime now) {
+            return next != null && !next.start.isAfter(now);
+        }
+
+        private Summary with(BookingRef booking, LocalDateTime now) {
+            if (booking.start.isAfter(now) && (next == null || booking.start.isBefore(next.start))) {
+                return new Summary(last, booking);
+            }
+            if (booking.start.isBefore(now) && (last == null || booking.start.isAfter(last.start))) {
+                return new Summary(booking, next);
+            }
+            return this;
+        }
+    }
+
+    private static final class BookingRef {
+        private final long id;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final long bookerId;
+
+        private BookingRef(Booking booking) {
+            this.id = booking.getId();
+            this.start = booking.getStart();
+            this.end = booking.getEnd();
+            this.bookerId = booking.getBooker().getId();
+        }
+
+        private BookingRef(ItemBookingView view) {
+            this.id = view.getId();
+            this.start = view.getStart();
+            this.end = view.getEnd();
+            this.bookerId = view.getBookerId();
+        }
+
+        private BookingDto toBookingDto() {
+            BookingDto dto = new BookingDto();
+            dto.setId(id);
+            dto.setStart(start);
+            dto.setEnd(end);
+            dto.setBookerId(bookerId);
+            return dto;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.summary;
+
+import java.time.LocalDateTime;
+
+public interface ItemBookingView {
+    Long getId();
+
+    Long getItemId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+
+    Long getBookerId();
+}
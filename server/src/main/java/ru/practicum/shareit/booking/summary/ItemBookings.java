@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.summary;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+/**
+ * Last and next booking of an item, {@code null} when it has none.
+ */
+@Data
+@AllArgsConstructor
+public class ItemBookings {
+    private BookingDto last;
+    private BookingDto next;
+}
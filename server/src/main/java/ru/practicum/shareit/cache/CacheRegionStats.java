@@ -0,0 +1,22 @@
+package ru.practicum.shareit.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.hibernate.stat.CacheRegionStatistics;
+
+@Data
+@AllArgsConstructor
+public class CacheRegionStats {
+    private long hits;
+    private long misses;
+    private long puts;
+    private long size;
+    private double hitRatio;
+
+    public static CacheRegionStats of(CacheRegionStatistics region) {
+        long hits = region.getHitCount();
+        long misses = region.getMissCount();
+        double hitRatio = hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+        return new CacheRegionStats(hits, misses, region.getPutCount(), region.getElementCountInMemory(), hitRatio);
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Evicts cached entities that the database changes behind Hibernate's back.
+ * Users, items and requests are updated through the persistence context, which keeps their cache regions in sync,
+ * but deleting a user cascades to its items and requests in the database only, so these regions are dropped
+ * once the deleting transaction commits.
+ */
+@Slf4j
+@Component
+public class SecondLevelCache {
+    private final EntityManagerFactory entityManagerFactory;
+
+    public SecondLevelCache(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public void evictUser(long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doEvictUser(userId);
+                }
+            });
+        } else {
+            doEvictUser(userId);
+        }
+    }
+
+    private void doEvictUser(long userId) {
+        Cache cache = entityManagerFactory.getCache();
+        cache.evict(User.class, userId);
+        cache.evict(Item.class);
+        cache.evict(ItemRequest.class);
+        log.debug("Evicted user {} with cached items and requests", userId);
+    }
+}
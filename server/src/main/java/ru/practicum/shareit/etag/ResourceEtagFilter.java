@@ -0,0 +1,25 @@
+package ru.practicum.shareit.etag;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.regex.Pattern;
+
+/**
+ * Adds a strong ETag, the hash of the response body, to GET responses of single items, users, requests and
+ * bookings, and answers 304 without a body when the client sends a matching {@code If-None-Match}.
+ * Item and booking views include bookings, comments and the requesting user's perspective, so an entity version
+ * alone would not tell whether they changed; the content hash does.
+ */
+@Component
+public class ResourceEtagFilter extends ShallowEtagHeaderFilter {
+    private static final Pattern RESOURCE_PATH = Pattern.compile("/(items|users|requests|bookings)/\\d+");
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod())
+                || !RESOURCE_PATH.matcher(request.getRequestURI().substring(request.getContextPath().length()))
+                .matches();
+    }
+}
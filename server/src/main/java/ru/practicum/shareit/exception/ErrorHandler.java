@@ -2,6 +2,7 @@ package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseBody;
@@ -57,4 +58,11 @@ public class ErrorHandler {
         log.info("Element with same email already exists");
         return new ErrorResponse("Пользователь с такой эл. почтой уже существует " + e.getMessage());
     }
+
+    @ExceptionHandler({ConflictException.class, ObjectOptimisticLockingFailureException.class})
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConflict(RuntimeException e) {
+        log.info("Concurrent modification: {}", e.getMessage());
+        return new ErrorResponse("Данные были изменены другим запросом " + e.getMessage());
+    }
 }
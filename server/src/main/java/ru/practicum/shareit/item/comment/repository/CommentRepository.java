@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item.comment.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.comment.model.Comment;
 
 
@@ -9,7 +11,11 @@ import java.util.Set;
 
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @EntityGraph(attributePaths = "author")
+    @Query("select c from Comment c where c.item.id in ?1")
     List<Comment> findAllByItemIdIn(Set<Long> itemsIds);
 
+    @EntityGraph(attributePaths = "author")
+    @Query("select c from Comment c where c.item.id = ?1")
     List<Comment> findAllByItemId(long itemId);
 }
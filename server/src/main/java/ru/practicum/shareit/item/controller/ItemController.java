@@ -1,12 +1,17 @@
 package ru.practicum.shareit.item.controller;
 
 import com.fasterxml.jackson.databind.JsonMappingException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.FreeSlot;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingsAndComments;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.TotalCountCache;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -28,6 +33,12 @@ public class ItemController {
         return itemService.postItem(userId, itemDto);
     }
 
+    @PostMapping("/batch")
+    public List<ItemDto> postItems(@RequestHeader(value = "X-Sharer-User-Id", required = true) Long userId,
+                                   @RequestBody List<ItemDto> itemDtos) {
+        return itemService.postItems(userId, itemDtos);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto postComment(@RequestHeader(value = "X-Sharer-User-Id", required = true) long userId,
                                   @PathVariable long itemId,
@@ -49,12 +60,17 @@ public class ItemController {
     }
 
     @GetMapping
-    public List<ItemWithBookingsAndComments> getAllItems(@RequestHeader(value = "X-Sharer-User-Id", required = true)
-                                                            long userId,
-                                                         @RequestParam(defaultValue = "0") int from,
-                                                         @RequestParam(defaultValue = "10")
-                                                             int size) {
-        return itemService.getAllItemsOwner(userId, from, size);
+    public ResponseEntity<List<ItemWithBookingsAndComments>> getAllItems(@RequestHeader(value = "X-Sharer-User-Id", required = true) long userId,
+                                                                         @RequestParam(defaultValue = "0") int from,
+                                                                         @RequestParam(defaultValue = "10") int size,
+                                                                         @RequestParam(defaultValue = "false") boolean total) {
+        List<ItemWithBookingsAndComments> items = itemService.getAllItemsOwner(userId, from, size);
+        if (!total) {
+            return ResponseEntity.ok(items);
+        }
+        return ResponseEntity.ok()
+                .header(TotalCountCache.TOTAL_COUNT_HEADER, String.valueOf(itemService.countItemsOwner(userId)))
+                .body(items);
     }
 
     @GetMapping("/search")
@@ -64,4 +80,14 @@ public class ItemController {
                                     @RequestParam(defaultValue = "10") int size) {
         return itemService.searchItem(userId, text, from, size);
     }
+
+    @GetMapping("/{itemId}/slots")
+    public List<FreeSlot> getFreeSlots(@RequestHeader(value = "X-Sharer-User-Id", required = true) long userId,
+                                       @PathVariable long itemId,
+                                       @RequestParam(required = false)
+                                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                       @RequestParam(required = false)
+                                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        return itemService.getFreeSlots(userId, itemId, start, end);
+    }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.dto;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
@@ -44,6 +45,16 @@ public class ItemMapper {
         return itemDto;
     }
 
+    public static ItemWithBookingsAndComments toItemWithBookingsAndCommentsDto(Item item, BookingDto last,
+                                                                               BookingDto next,
+                                                                               List<CommentDto> comments) {
+        ItemWithBookingsAndComments itemDto = toItemWithBookingsAndCommentsDto(item, Optional.empty(),
+                Optional.empty(), comments);
+        itemDto.setLastBooking(last);
+        itemDto.setNextBooking(next);
+        return itemDto;
+    }
+
     public static Item toItem(ItemDto itemDto) {
         Item item = new Item();
         if (itemDto.getId() != null) {
@@ -1,25 +1,42 @@
 package ru.practicum.shareit.item.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchView;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    String SELECT_ITEM_DTO = "select new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, " +
+            "i.available, i.request.id) from Item i ";
 
-    Page<Item> findItemByOwnerId(Long ownerId, Pageable page);
+    @Query("select i from Item i where i.owner.id = ?1")
+    Slice<Item> findItemByOwnerId(Long ownerId, Pageable page);
 
-    List<Item> findAllByRequest_IdIn(Set<Long> requestIds);
+    long countByOwnerId(Long ownerId);
 
-    List<Item> findByRequest_Id(Long requestId);
+    @Query("select i.id from Item i where i.owner.id = ?1")
+    List<Long> findIdsByOwnerId(long ownerId);
 
-    @Query("select i from Item i where upper(i.name) like upper(concat('%', ?1, '%')) " +
-            "or upper(i.description) like upper(concat('%', ?1, '%')) and i.available = true")
-    Page<Item> search(String text, Pageable page);
+    @Query(SELECT_ITEM_DTO + "where i.request.id in ?1")
+    List<ItemDto> findItemDtosByRequestIdIn(Collection<Long> requestIds);
+
+    @Query(SELECT_ITEM_DTO + "where i.request.id = ?1")
+    List<ItemDto> findItemDtosByRequestId(Long requestId);
+
+    @Query(SELECT_ITEM_DTO + "where i.id in ?1")
+    List<ItemDto> findItemDtosByIdIn(Collection<Long> ids);
+
+    @Query(SELECT_ITEM_DTO + "where i.available = true and (upper(i.name) like upper(concat('%', ?1, '%')) " +
+            "or upper(i.description) like upper(concat('%', ?1, '%')))")
+    Slice<ItemDto> search(String text, Pageable page);
+
+    List<ItemSearchView> findByIdGreaterThanAndAvailableTrueOrderByIdAsc(Long id, Pageable page);
 }
@@ -0,0 +1,378 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over names and descriptions of available items.
+ * Terms match any indexed token containing them, so results agree with the former
+ * {@code like '%text%'} search for single-word queries; multi-word queries require every word to match.
+ * Unavailable items are kept out of the index entirely and are added back once they become available again.
+ */
+@Slf4j
+@Component
+public class ItemSearchIndex {
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int EXACT_MATCH_SCORE = 3;
+    private static final int PREFIX_MATCH_SCORE = 2;
+    private static final int INFIX_MATCH_SCORE = 1;
+
+    private final ItemRepository itemRepository;
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Posting> postings = new HashMap<>();
+    private final TreeMap<String, Set<String>> suffixes = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Set<Long> writtenDuringRebuild;
+    private volatile boolean ready;
+
+    public ItemSearchIndex(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.info("Building item search index");
+        lock.writeLock().lock();
+        try {
+            writtenDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        long lastId = 0;
+        int loaded = 0;
+        List<ItemSearchView> batch;
+        do {
+            batch = itemRepository.findByIdGreaterThanAndAvailableTrueOrderByIdAsc(lastId,
+                    PageRequest.ofSize(LOAD_BATCH_SIZE));
+            lock.writeLock().lock();
+            try {
+                for (ItemSearchView view : batch) {
+                    // items written while the index was loading are already indexed with fresher data
+                    if (!writtenDuringRebuild.contains(view.getId())) {
+                        remove(view.getId());
+                        add(view.getId(), view.getName(), view.getDescription());
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+            loaded += batch.size();
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        lock.writeLock().lock();
+        try {
+            writtenDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        log.info("Item search index is built, {} available items indexed", loaded);
+    }
+
+    public boolean canSearch(String text) {
+        return ready && !tokenize(text).isEmpty();
+    }
+
+    public void index(Item item) {
+        indexAll(List.of(item));
+    }
+
+    /**
+     * Indexes the items once the current transaction commits, taking the write lock once for all of them.
+     */
+    public void indexAll(List<Item> items) {
+        List<ItemSnapshot> snapshots = new ArrayList<>(items.size());
+        for (Item item : items) {
+            snapshots.add(new ItemSnapshot(item.getId(), item.getName(), item.getDescription(),
+                    Boolean.TRUE.equals(item.getAvailable())));
+        }
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                for (ItemSnapshot item : snapshots) {
+                    if (writtenDuringRebuild != null) {
+                        writtenDuringRebuild.add(item.id);
+                    }
+                    remove(item.id);
+                    if (item.available) {
+                        add(item.id, item.name, item.description);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void evict(long itemId) {
+        lock.writeLock().lock();
+        try {
+            remove(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes items the database deleted, with their owner for example, once the current transaction commits.
+     */
+    public void evictAll(Collection<Long> itemIds) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                for (Long itemId : itemIds) {
+                    if (writtenDuringRebuild != null) {
+                        writtenDuringRebuild.add(itemId);
+                    }
+                    remove(itemId);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the items a search for the text scores before ranking and paging them, the items it looks at.
+     */
+    public Set<Long> candidates(String text) {
+        List<String> terms = terms(text);
+        if (terms.isEmpty()) {
+            return Collections.emptySet();
+        }
+        lock.readLock().lock();
+        try {
+            return candidates(terms);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Long> search(String text, int from, int size) {
+        List<String> terms = terms(text);
+        if (terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            Set<Long> candidates = candidates(terms);
+            if (candidates.isEmpty()) {
+                return Collections.emptyList();
+            }
+
+            Map<Long, Integer> scores = new HashMap<>();
+            for (Long itemId : candidates) {
+                scores.put(itemId, score(documents.get(itemId), terms));
+            }
+            List<Long> ranked = new ArrayList<>(scores.keySet());
+            ranked.sort(Comparator.comparing((Long itemId) -> scores.get(itemId)).reversed()
+                    .thenComparing(Comparator.naturalOrder()));
+
+            int offset = from > 0 ? from / size * size : 0;
+            if (offset >= ranked.size()) {
+                return Collections.emptyList();
+            }
+            return new ArrayList<>(ranked.subList(offset, Math.min(offset + size, ranked.size())));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Distinct terms of the text, longest first: they match the fewest items, so the candidates shrink fastest.
+     */
+    private static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(text)));
+        terms.sort(Comparator.comparingInt(String::length).reversed());
+        return terms;
+    }
+
+    private Set<Long> candidates(List<String> terms) {
+        Set<Long> candidates = null;
+        for (String term : terms) {
+            Set<Long> matches = match(term);
+            if (candidates == null) {
+                candidates = matches;
+            } else {
+                candidates.retainAll(matches);
+            }
+            if (candidates.isEmpty()) {
+                break;
+            }
+        }
+        return candidates;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean tokenChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private Set<Long> match(String term) {
+        Set<Long> itemIds = new HashSet<>();
+        for (Set<String> tokens : suffixes.subMap(term, true, term + Character.MAX_VALUE, false).values()) {
+            for (String token : tokens) {
+                itemIds.addAll(postings.get(token).itemIds);
+            }
+        }
+        return itemIds;
+    }
+
+    private int score(Document document, List<String> terms) {
+        int score = 0;
+        for (String term : terms) {
+            score += NAME_WEIGHT * score(document.nameTokens, term)
+                    + DESCRIPTION_WEIGHT * score(document.descriptionTokens, term);
+        }
+        return score;
+    }
+
+    private int score(String[] tokens, String term) {
+        int score = 0;
+        for (String token : tokens) {
+            if (token.equals(term)) {
+                score += EXACT_MATCH_SCORE;
+            } else if (token.startsWith(term)) {
+                score += PREFIX_MATCH_SCORE;
+            } else if (token.contains(term)) {
+                score += INFIX_MATCH_SCORE;
+            }
+        }
+        return score;
+    }
+
+    private void add(long itemId, String name, String description) {
+        Document document = new Document(canonical(tokenize(name)), canonical(tokenize(description)));
+        documents.put(itemId, document);
+        for (String token : document.distinctTokens()) {
+            postings.get(token).itemIds.add(itemId);
+        }
+    }
+
+    private void remove(long itemId) {
+        Document document = documents.remove(itemId);
+        if (document == null) {
+            return;
+        }
+        for (String token : document.distinctTokens()) {
+            Posting posting = postings.get(token);
+            posting.itemIds.remove(itemId);
+            if (posting.itemIds.isEmpty()) {
+                postings.remove(token);
+                for (int i = 0; i < token.length(); i++) {
+                    String suffix = token.substring(i);
+                    Set<String> tokens = suffixes.get(suffix);
+                    tokens.remove(token);
+                    if (tokens.isEmpty()) {
+                        suffixes.remove(suffix);
+                    }
+                }
+            }
+        }
+    }
+
+    private String[] canonical(List<String> tokens) {
+        String[] canonical = new String[tokens.size()];
+        for (int i = 0; i < canonical.length; i++) {
+            canonical[i] = postings.computeIfAbsent(tokens.get(i), this::newPosting).token;
+        }
+        return canonical;
+    }
+
+    private Posting newPosting(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            suffixes.computeIfAbsent(token.substring(i), suffix -> new HashSet<>()).add(token);
+        }
+        return new Posting(token);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class ItemSnapshot {
+        private final long id;
+        private final String name;
+        private final String description;
+        private final boolean available;
+
+        private ItemSnapshot(long id, String name, String description, boolean available) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.available = available;
+        }
+    }
+
+    private static final class Posting {
+        private final String token;
+        private final Set<Long> itemIds = new HashSet<>();
+
+        private Posting(String token) {
+            this.token = token;
+        }
+    }
+
+    private static final class Document {
+        private final String[] nameTokens;
+        private final String[] descriptionTokens;
+
+        private Document(String[] nameTokens, String[] descriptionTokens) {
+            this.nameTokens = nameTokens;
+            this.descriptionTokens = descriptionTokens;
+        }
+
+        private Set<String> distinctTokens() {
+            Set<String> tokens = new HashSet<>(Arrays.asList(nameTokens));
+            tokens.addAll(Arrays.asList(descriptionTokens));
+            return tokens;
+        }
+    }
+}
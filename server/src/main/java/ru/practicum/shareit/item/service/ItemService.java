@@ -1,16 +1,20 @@
 package ru.practicum.shareit.item.service;
 
 import com.fasterxml.jackson.databind.JsonMappingException;
+import ru.practicum.shareit.booking.dto.FreeSlot;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingsAndComments;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
 
     ItemDto postItem(long userId, ItemDto itemDto);
 
+    List<ItemDto> postItems(long userId, List<ItemDto> itemDtos);
+
     CommentDto postComment(long userId, long itemId, CommentDto commentDto);
 
     ItemDto partiallyUpdateItem(long userId, long itemId, ItemDto itemDto) throws JsonMappingException;
@@ -19,5 +23,9 @@ public interface ItemService {
 
     List<ItemWithBookingsAndComments> getAllItemsOwner(long userId, int from, int size);
 
+    long countItemsOwner(long userId);
+
     List<ItemDto> searchItem(long userId, String text, int from, int size);
+
+    List<FreeSlot> getFreeSlots(long userId, long itemId, LocalDateTime start, LocalDateTime end);
 }
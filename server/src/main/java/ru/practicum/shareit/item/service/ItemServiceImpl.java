@@ -3,12 +3,15 @@ package ru.practicum.shareit.item.service;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.sleuth.Tracer;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.calendar.BookingCalendar;
+import ru.practicum.shareit.booking.dto.FreeSlot;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
+import ru.practicum.shareit.booking.summary.ItemBookings;
 import ru.practicum.shareit.exception.IllegalOperationException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
@@ -20,8 +23,12 @@ import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.dto.ItemWithBookingsAndComments;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.pagination.TotalCountCache;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.tracing.Spans;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
@@ -33,6 +40,7 @@ import java.util.stream.Collectors;
 @Slf4j
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
+    private static final int FREE_SLOTS_DEFAULT_DAYS = 30;
 
     private final ItemRepository itemRepository;
     private final ObjectMapper objectMapper;
@@ -40,16 +48,28 @@ public class ItemServiceImpl implements ItemService {
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final BookingCalendar bookingCalendar;
+    private final ItemBookingSummary itemBookingSummary;
+    private final TotalCountCache totalCounts;
+    private final Tracer tracer;
 
     public ItemServiceImpl(ItemRepository itemRepository, ObjectMapper objectMapper, UserRepository userRepository,
                            BookingRepository bookingRepository, CommentRepository commentRepository,
-                           ItemRequestRepository itemRequestRepository) {
+                           ItemRequestRepository itemRequestRepository, ItemSearchIndex itemSearchIndex,
+                           BookingCalendar bookingCalendar, ItemBookingSummary itemBookingSummary,
+                           TotalCountCache totalCounts, Tracer tracer) {
         this.itemRepository = itemRepository;
         this.objectMapper = objectMapper;
         this.userRepository = userRepository;
         this.bookingRepository = bookingRepository;
         this.commentRepository = commentRepository;
         this.itemRequestRepository = itemRequestRepository;
+        this.itemSearchIndex = itemSearchIndex;
+        this.bookingCalendar = bookingCalendar;
+        this.itemBookingSummary = itemBookingSummary;
+        this.totalCounts = totalCounts;
+        this.tracer = tracer;
     }
 
     @Transactional
@@ -66,7 +86,47 @@ public class ItemServiceImpl implements ItemService {
         }
         itemToPost.setOwner(userRepository.findById(userId).orElseThrow(() ->
                 new NotFoundException("User with id " + userId + " is not found")));
-        return ItemMapper.toItemDto(itemRepository.save(itemToPost));
+        Item postedItem = itemRepository.save(itemToPost);
+        itemSearchIndex.index(postedItem);
+        return ItemMapper.toItemDto(postedItem);
+    }
+
+    /**
+     * Posts all items or none. Referenced requests are loaded with one query and the items are saved together,
+     * so that Hibernate can send the inserts in JDBC batches.
+     */
+    @Transactional
+    @Override
+    public List<ItemDto> postItems(long userId, List<ItemDto> itemDtos) {
+        log.info("Posting {} items by user with id {}", itemDtos.size(), userId);
+
+        User owner = userRepository.findById(userId).orElseThrow(() ->
+                new NotFoundException("User with id " + userId + " is not found"));
+        Set<Long> requestIds = itemDtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requests = itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+        if (requests.size() < requestIds.size()) {
+            requestIds.removeAll(requests.keySet());
+            throw new NotFoundException("Requests with ids " + requestIds + " are not found");
+        }
+
+        List<Item> itemsToPost = new ArrayList<>(itemDtos.size());
+        for (ItemDto itemDto : itemDtos) {
+            Item item = ItemMapper.toItem(itemDto);
+            item.setOwner(owner);
+            if (itemDto.getRequestId() != null) {
+                item.setRequest(requests.get(itemDto.getRequestId()));
+            }
+            itemsToPost.add(item);
+        }
+        List<Item> postedItems = itemRepository.saveAll(itemsToPost);
+        itemSearchIndex.indexAll(postedItems);
+        return postedItems.stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
     }
 
     @Transactional
@@ -98,8 +158,9 @@ public class ItemServiceImpl implements ItemService {
         if (itemToUpdate.getOwner().getId() != userId) {
             throw new NotFoundException("Item with id " + itemId + " for user with id " + userId + " not found");
         }
-        Item updatedItem = objectMapper.updateValue(itemToUpdate, itemDto);
-        return ItemMapper.toItemDto(itemRepository.save(updatedItem));
+        Item updatedItem = itemRepository.save(objectMapper.updateValue(itemToUpdate, itemDto));
+        itemSearchIndex.index(updatedItem);
+        return ItemMapper.toItemDto(updatedItem);
     }
 
     @Override
@@ -109,17 +170,13 @@ public class ItemServiceImpl implements ItemService {
         Item searchedItem = itemRepository.findById(itemId).orElseThrow(() -> {
             throw new NotFoundException("Item with id " + itemId + " is not found");
         });
-        Optional<Booking> last = Optional.empty();
-        Optional<Booking> next = Optional.empty();
+        ItemBookings bookings = new ItemBookings(null, null);
 
         List<Comment> comments = commentRepository.findAllByItemId(itemId);
         if (userId == searchedItem.getOwner().getId()) {
-            last = bookingRepository.findFirstBookingByItem_IdAndStatusNotAndStartBeforeOrderByStartDesc(itemId,
-                    BookingStatus.REJECTED, LocalDateTime.now());
-            next = bookingRepository.findFirstBookingByItem_IdAndStatusNotAndStartAfterOrderByStartAsc(itemId,
-                    BookingStatus.REJECTED, LocalDateTime.now());
+            bookings = itemBookingSummary.getBookings(itemId);
         }
-        return ItemMapper.toItemWithBookingsAndCommentsDto(searchedItem, last, next,
+        return ItemMapper.toItemWithBookingsAndCommentsDto(searchedItem, bookings.getLast(), bookings.getNext(),
                 CommentMapper.toCommentDtoList(comments));
     }
 
@@ -133,22 +190,26 @@ public class ItemServiceImpl implements ItemService {
                 .stream()
                 .collect(Collectors.toMap(Item::getId, Function.identity()));
 
-        Map<Long, List<Booking>> bookingsMap = bookingRepository.findByItem_IdIn(itemMap.keySet())
-                .stream()
-                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        itemBookingSummary.preload(itemMap.keySet());
 
         Map<Long, List<Comment>> commentsMap = commentRepository.findAllByItemIdIn(itemMap.keySet()).stream()
                 .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
 
-        return itemMap.values()
+        return Spans.inSpan(tracer, "ItemMapper.toItemWithBookingsAndCommentsDto", () -> itemMap.values()
                 .stream()
-                .map(item -> ItemMapper.toItemWithBookingsAndCommentsDto(item,
-                        getLastBooking(bookingsMap.getOrDefault(item.getId(), Collections.emptyList())),
-                        getNextBooking(bookingsMap.getOrDefault(item.getId(), Collections.emptyList())),
-                        CommentMapper.toCommentDtoList(commentsMap.getOrDefault(item.getId(), Collections.emptyList()))))
-                .collect(Collectors.toList());
+                .map(item -> {
+                    ItemBookings bookings = itemBookingSummary.getBookings(item.getId());
+                    return ItemMapper.toItemWithBookingsAndCommentsDto(item, bookings.getLast(), bookings.getNext(),
+                            CommentMapper.toCommentDtoList(commentsMap.getOrDefault(item.getId(),
+                                    Collections.emptyList())));
+                })
+                .collect(Collectors.toList()));
     }
 
+    @Override
+    public long countItemsOwner(long userId) {
+        return totalCounts.get("items:owner:" + userId, () -> itemRepository.countByOwnerId(userId));
+    }
 
     @Override
     public List<ItemDto> searchItem(long userId, String text, int from, int size) {
@@ -159,29 +220,45 @@ public class ItemServiceImpl implements ItemService {
         if (text == null || text.isEmpty() || text.isBlank()) {
             return Collections.emptyList();
         }
-        return itemRepository.search(text, page).stream()
-                .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList());
-    }
+        if (!itemSearchIndex.canSearch(text)) {
+            return itemRepository.search(text, page).getContent();
+        }
+
+        List<Long> itemIds = itemSearchIndex.search(text, from, size);
+        Map<Long, ItemDto> itemMap = itemRepository.findItemDtosByIdIn(itemIds)
+                .stream()
+                .collect(Collectors.toMap(ItemDto::getId, Function.identity()));
 
-    private Optional<Booking> getLastBooking(List<Booking> bookings) {
-        if (bookings.isEmpty()) {
-            return Optional.empty();
+        List<ItemDto> found = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            ItemDto item = itemMap.get(itemId);
+            if (item == null) {
+                log.debug("Item with id {} is indexed but no longer exists", itemId);
+                itemSearchIndex.evict(itemId);
+            } else {
+                found.add(item);
+            }
         }
-        return bookings.stream()
-                .filter(booking -> booking.getStart().isBefore(LocalDateTime.now())
-                        && !booking.getStatus().equals(BookingStatus.REJECTED))
-                .max(Comparator.comparing(Booking::getStart));
+        return found;
     }
 
-    private Optional<Booking> getNextBooking(List<Booking> bookings) {
-        if (bookings.isEmpty()) {
-            return Optional.empty();
+    @Override
+    public List<FreeSlot> getFreeSlots(long userId, long itemId, LocalDateTime start, LocalDateTime end) {
+        log.info("Retrieving free slots of item with id {} from {} to {} by user with id {}", itemId, start, end,
+                userId);
+
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("User with id " + userId + " is not found");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Item with id " + itemId + " is not found");
+        }
+        LocalDateTime from = start != null ? start : LocalDateTime.now();
+        LocalDateTime to = end != null ? end : from.plusDays(FREE_SLOTS_DEFAULT_DAYS);
+        if (!to.isAfter(from)) {
+            throw new IllegalOperationException("End of the period must be after its start");
         }
-        return bookings.stream()
-                .filter(booking -> booking.getStart().isAfter(LocalDateTime.now())
-                        && !booking.getStatus().equals(BookingStatus.REJECTED))
-                .min(Comparator.comparing(Booking::getStart));
+        return bookingCalendar.getFreeSlots(itemId, from, to);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.metrics.data.DefaultRepositoryTagsProvider;
+import org.springframework.boot.actuate.metrics.data.RepositoryTagsProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocation;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Timers for every public method of the {@code *ServiceImpl} services, endpoint and booking state tags for
+ * Spring Data's repository timers, and statement counts and database time per request, checked against
+ * the {@link SqlBudgetProperties SQL budget}. Everything is exposed through the {@code prometheus} actuator
+ * endpoint; Hikari's connection acquisition timers are bound by Spring Boot.
+ */
+@Configuration
+@EnableConfigurationProperties(SqlBudgetProperties.class)
+public class MetricsConfig {
+
+    @Bean
+    public static Advisor serviceTimingAdvisor(ObjectProvider<MeterRegistry> registry) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new ServiceMethods(),
+                new ServiceTimingInterceptor(registry));
+        // outermost, so the timer includes opening and committing the transaction
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    @Bean
+    public RepositoryTagsProvider repositoryTagsProvider() {
+        return new DefaultRepositoryTagsProvider() {
+            @Override
+            public Iterable<Tag> repositoryTags(RepositoryMethodInvocation invocation) {
+                return Tags.of(super.repositoryTags(invocation))
+                        .and(RequestTags.endpoint(), RequestTags.bookingState());
+            }
+        };
+    }
+
+    @Bean
+    public RequestStatementCounter requestStatementCounter(MeterRegistry registry, SqlBudgetProperties budget) {
+        return new RequestStatementCounter(registry, budget);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementInspector(RequestStatementCounter requestStatementCounter) {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, requestStatementCounter);
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, StatementTimingListener.class.getName());
+        };
+    }
+
+    private static class ServiceMethods extends StaticMethodMatcherPointcut {
+        ServiceMethods() {
+            setClassFilter(type -> type.getName().startsWith("ru.practicum.shareit.")
+                    && type.getSimpleName().endsWith("ServiceImpl"));
+        }
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return Modifier.isPublic(method.getModifiers()) && method.getDeclaringClass() != Object.class;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the JDBC statements Hibernate prepares while an HTTP request is handled and the time spent executing
+ * them, and records both per endpoint as {@value #METRIC_NAME} and {@value #DB_TIME_METRIC_NAME}. A request
+ * over its {@link SqlBudgetProperties budget} is logged and counted as {@value #OVER_BUDGET_METRIC_NAME},
+ * a slow statement is logged with its SQL. The statements are tracked per thread, so only those the request thread
+ * runs itself are counted: work the request hands to another thread, an {@code @Async} method or a parallel
+ * stream, is not, nor are statements run outside of a request, at startup or by scheduled jobs.
+ * <p>
+ * With {@link SqlBudgetProperties#isFailOnExceeded() fail-on-exceeded} the response is buffered until the request
+ * has been checked, so a request over its budget fails with a server error instead of a response already sent.
+ */
+@Slf4j
+public class RequestStatementCounter extends OncePerRequestFilter implements StatementInspector {
+    static final String METRIC_NAME = "shareit.http.statements";
+    static final String DB_TIME_METRIC_NAME = "shareit.http.db.time";
+    static final String OVER_BUDGET_METRIC_NAME = "shareit.http.sql.over.budget";
+
+    private static final ThreadLocal<RequestStatements> STATEMENTS = new ThreadLocal<>();
+
+    private final MeterRegistry registry;
+    private final SqlBudgetProperties budget;
+
+    public RequestStatementCounter(MeterRegistry registry, SqlBudgetProperties budget) {
+        this.registry = registry;
+        this.budget = budget;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        RequestStatements statements = STATEMENTS.get();
+        if (statements != null) {
+            statements.count++;
+            statements.lastSql = sql;
+        }
+        return sql;
+    }
+
+    /**
+     * Called by {@link StatementTimingListener} once a statement or batch has been executed.
+     */
+    static void executed(long nanos) {
+        RequestStatements statements = STATEMENTS.get();
+        if (statements == null) {
+            return;
+        }
+        statements.dbNanos += nanos;
+        if (nanos > statements.slowStatementNanos) {
+            log.warn("Slow statement took {} ms: {}", TimeUnit.NANOSECONDS.toMillis(nanos), statements.lastSql);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestStatements statements = new RequestStatements(budget.getSlowStatement().toNanos());
+        // the body is held back until the budget is checked, the response could be committed by then otherwise
+        ContentCachingResponseWrapper bufferedResponse = budget.isFailOnExceeded()
+                ? new ContentCachingResponseWrapper(response)
+                : null;
+        STATEMENTS.set(statements);
+        String overBudget;
+        try {
+            chain.doFilter(request, bufferedResponse != null ? bufferedResponse : response);
+        } finally {
+            STATEMENTS.remove();
+            overBudget = record(RequestTags.endpoint(request), statements);
+        }
+        if (bufferedResponse == null) {
+            return;
+        }
+        if (overBudget != null) {
+            if (!response.isCommitted()) {
+                response.reset();
+            }
+            throw new IllegalStateException(overBudget);
+        }
+        bufferedResponse.copyBodyToResponse();
+    }
+
+    /**
+     * Records the request's statements and returns why it is over its statement budget, or {@code null}.
+     */
+    private String record(Tag endpoint, RequestStatements statements) {
+        DistributionSummary.builder(METRIC_NAME)
+                .baseUnit("statements")
+                .tags(Tags.of(endpoint))
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(statements.count);
+        Timer.builder(DB_TIME_METRIC_NAME)
+                .tags(Tags.of(endpoint))
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(statements.dbNanos, TimeUnit.NANOSECONDS);
+
+        int maxStatements = budget.maxStatements(endpoint.getValue());
+        boolean tooManyStatements = statements.count > maxStatements;
+        boolean tooMuchDbTime = statements.dbNanos > budget.getMaxDbTime().toNanos();
+        if (tooManyStatements) {
+            overBudget(endpoint, "statements");
+        }
+        if (tooMuchDbTime) {
+            overBudget(endpoint, "db.time");
+        }
+        if (tooManyStatements || tooMuchDbTime) {
+            log.warn("{} ran {} statements in {} ms, the budget is {} statements and {} ms", endpoint.getValue(),
+                    statements.count, TimeUnit.NANOSECONDS.toMillis(statements.dbNanos), maxStatements,
+                    budget.getMaxDbTime().toMillis());
+        }
+        return tooManyStatements
+                ? endpoint.getValue() + " ran " + statements.count + " statements, its budget is " + maxStatements
+                : null;
+    }
+
+    private void overBudget(Tag endpoint, String budgetName) {
+        Counter.builder(OVER_BUDGET_METRIC_NAME)
+                .description("HTTP requests that ran more statements or spent more time in the database than allowed")
+                .tags(Tags.of(endpoint).and("budget", budgetName))
+                .register(registry)
+                .increment();
+    }
+
+    private static class RequestStatements {
+        private final long slowStatementNanos;
+        private long count;
+        private long dbNanos;
+        private String lastSql;
+
+        RequestStatements(long slowStatementNanos) {
+            this.slowStatementNanos = slowStatementNanos;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Tag;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Tags that tie a measurement to the HTTP request it was taken in: the endpoint, as method and mapped path
+ * pattern, and the booking state the request asked for. Outside of a request both are {@code none}.
+ */
+final class RequestTags {
+    static final String NONE = "none";
+
+    private static final String BOOKING_STATE_ATTRIBUTE = RequestTags.class.getName() + ".bookingState";
+
+    private RequestTags() {
+    }
+
+    static Tag endpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return Tag.of("endpoint", NONE);
+        }
+        return endpoint(((ServletRequestAttributes) attributes).getRequest());
+    }
+
+    static Tag endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return Tag.of("endpoint", pattern == null ? NONE : request.getMethod() + " " + pattern);
+    }
+
+    static Tag bookingState() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        Object state = attributes == null ? null
+                : attributes.getAttribute(BOOKING_STATE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return Tag.of("state", state == null ? NONE : state.toString());
+    }
+
+    /**
+     * Remembers the booking state for the rest of the request, so repository calls made for it are tagged too.
+     */
+    static void setBookingState(Object state) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(BOOKING_STATE_ATTRIBUTE, state, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+}
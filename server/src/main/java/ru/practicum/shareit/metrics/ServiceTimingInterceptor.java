@@ -0,0 +1,58 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import ru.practicum.shareit.booking.dto.BookingState;
+
+/**
+ * Times service methods, including their transaction, as {@value #METRIC_NAME} with percentile histograms.
+ * A {@link BookingState} argument becomes the {@code state} tag of this and of the following repository calls.
+ */
+class ServiceTimingInterceptor implements MethodInterceptor {
+    static final String METRIC_NAME = "shareit.service.invocations";
+
+    private final ObjectProvider<MeterRegistry> registry;
+
+    /**
+     * The registry is looked up on use: advisors are created before most other beans.
+     */
+    ServiceTimingInterceptor(ObjectProvider<MeterRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        for (Object argument : invocation.getArguments()) {
+            if (argument instanceof BookingState) {
+                RequestTags.setBookingState(argument);
+            }
+        }
+
+        MeterRegistry meterRegistry = registry.getObject();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = RequestTags.NONE;
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .tags(Tags.of("class", targetClass(invocation).getSimpleName(),
+                                    "method", invocation.getMethod().getName(),
+                                    "exception", exception)
+                            .and(RequestTags.endpoint(), RequestTags.bookingState()))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private static Class<?> targetClass(MethodInvocation invocation) {
+        return invocation.getThis() != null ? invocation.getThis().getClass()
+                : invocation.getMethod().getDeclaringClass();
+    }
+}
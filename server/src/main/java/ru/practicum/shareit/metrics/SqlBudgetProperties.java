@@ -0,0 +1,44 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * How many statements and how much database time one HTTP request may take before it is logged and counted
+ * as over budget by {@link RequestStatementCounter}.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit.sql-budget")
+public class SqlBudgetProperties {
+    /**
+     * Statements a request may run, unless its endpoint has a budget of its own.
+     */
+    private int maxStatements = 10;
+    /**
+     * Budgets of single endpoints, keyed by method and mapped path like the {@code endpoint} tag,
+     * for example {@code shareit.sql-budget.endpoint-max-statements.[GET\ /bookings/owner]=2}.
+     */
+    private Map<String, Integer> endpointMaxStatements = new HashMap<>();
+    /**
+     * Time a request may spend executing statements.
+     */
+    private Duration maxDbTime = Duration.ofMillis(200);
+    /**
+     * A statement executing longer than this is logged with its SQL.
+     */
+    private Duration slowStatement = Duration.ofMillis(100);
+    /**
+     * Fail a request that runs more statements than its budget instead of only reporting it. Meant for tests,
+     * where it turns a statement count regression into a failing test; the database time is never enforced.
+     * Buffers every response until the request is checked, so it is not meant for production either.
+     */
+    private boolean failOnExceeded;
+
+    public int maxStatements(String endpoint) {
+        return endpointMaxStatements.getOrDefault(endpoint, maxStatements);
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.metrics;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Hands the execution time of every statement and batch to {@link RequestStatementCounter}. Hibernate creates
+ * one listener per session from {@code hibernate.session.events.auto}, so the listener needs a public constructor
+ * and keeps no state beyond the statement being executed.
+ */
+public class StatementTimingListener extends BaseSessionEventListener {
+    private long executionStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestStatementCounter.executed(System.nanoTime() - executionStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestStatementCounter.executed(System.nanoTime() - executionStart);
+    }
+}
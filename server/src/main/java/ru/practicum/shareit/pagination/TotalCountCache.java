@@ -0,0 +1,58 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Approximate totals of list endpoints for clients that ask for them.
+ * A total is counted once and then served from memory until it is older than the configured time to live,
+ * so it may lag behind recent writes by that long. Lists themselves are read as slices and never count rows.
+ */
+@Slf4j
+@Component
+public class TotalCountCache {
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    private final long ttlMillis;
+    private final int maxSize;
+    private final ConcurrentMap<String, Count> counts = new ConcurrentHashMap<>();
+
+    public TotalCountCache(@Value("${shareit.total-count.ttl:30000}") long ttlMillis,
+                           @Value("${shareit.total-count.max-size:10000}") int maxSize) {
+        this.ttlMillis = ttlMillis;
+        this.maxSize = maxSize;
+    }
+
+    public long get(String key, LongSupplier counter) {
+        long now = System.currentTimeMillis();
+        Count count = counts.get(key);
+        if (count != null && now - count.countedAt < ttlMillis) {
+            return count.value;
+        }
+        if (counts.size() >= maxSize) {
+            counts.values().removeIf(stale -> now - stale.countedAt >= ttlMillis);
+            if (counts.size() >= maxSize) {
+                log.debug("Total count cache is full, dropping {} counts", counts.size());
+                counts.clear();
+            }
+        }
+        count = new Count(counter.getAsLong(), now);
+        counts.put(key, count);
+        return count.value;
+    }
+
+    private static final class Count {
+        private final long value;
+        private final long countedAt;
+
+        private Count(long value, long countedAt) {
+            this.value = value;
+            this.countedAt = countedAt;
+        }
+    }
+}
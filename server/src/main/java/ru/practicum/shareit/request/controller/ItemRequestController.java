@@ -1,6 +1,8 @@
 package ru.practicum.shareit.request.controller;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.pagination.TotalCountCache;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponse;
 import ru.practicum.shareit.request.dto.ItemRequestResponseWithItems;
@@ -39,9 +41,17 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestResponseWithItems> getAllRequests(@RequestHeader(value = "X-Sharer-User-Id", required = true) Long userId,
-                                                             @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                             @RequestParam(defaultValue = "10") Integer size) {
-        return itemRequestService.getAllRequestsByOtherUsers(userId, from, size);
+    public ResponseEntity<List<ItemRequestResponseWithItems>> getAllRequests(@RequestHeader(value = "X-Sharer-User-Id", required = true) Long userId,
+                                                                             @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                                             @RequestParam(defaultValue = "10") Integer size,
+                                                                             @RequestParam(defaultValue = "false") boolean total) {
+        List<ItemRequestResponseWithItems> requests = itemRequestService.getAllRequestsByOtherUsers(userId, from, size);
+        if (!total) {
+            return ResponseEntity.ok(requests);
+        }
+        return ResponseEntity.ok()
+                .header(TotalCountCache.TOTAL_COUNT_HEADER,
+                        String.valueOf(itemRequestService.countRequestsByOtherUsers(userId)))
+                .body(requests);
     }
 }
@@ -1,14 +1,18 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
-    Page<ItemRequest> findAllByRequestor_IdNot(long userId, Pageable page);
+    Slice<ItemRequest> findAllByRequestor_IdNot(long userId, Pageable page);
 
+    long countByRequestor_IdNot(long userId);
+
+    @Query("select r from ItemRequest r where r.requestor.id = ?1")
     List<ItemRequest> findByRequestor_Id(long userId);
 }
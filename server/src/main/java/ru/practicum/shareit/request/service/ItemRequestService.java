@@ -15,4 +15,6 @@ public interface ItemRequestService {
     ItemRequestResponseWithItems getRequestById(long userId, long requestId);
 
     List<ItemRequestResponseWithItems> getAllRequestsByOtherUsers(long userId, int from, int size);
+
+    long countRequestsByOtherUsers(long userId);
 }
@@ -1,21 +1,22 @@
 package ru.practicum.shareit.request.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.sleuth.Tracer;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
-import ru.practicum.shareit.item.dto.ItemMapper;
-import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.TotalCountCache;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.request.dto.ItemRequestResponse;
 import ru.practicum.shareit.request.dto.ItemRequestResponseWithItems;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.tracing.Spans;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -33,12 +34,16 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final TotalCountCache totalCounts;
+    private final Tracer tracer;
 
     public ItemRequestServiceImpl(ItemRequestRepository itemRequestRepository, UserRepository userRepository,
-                                  ItemRepository itemRepository) {
+                                  ItemRepository itemRepository, TotalCountCache totalCounts, Tracer tracer) {
         this.itemRequestRepository = itemRequestRepository;
         this.userRepository = userRepository;
         this.itemRepository = itemRepository;
+        this.totalCounts = totalCounts;
+        this.tracer = tracer;
     }
 
     @Transactional
@@ -63,16 +68,16 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 .stream()
                 .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
 
-        Map<Long, List<Item>> responsesToRequestsMap = itemRepository.findAllByRequest_IdIn(itemRequestMap.keySet())
+        Map<Long, List<ItemDto>> responsesToRequestsMap = itemRepository
+                .findItemDtosByRequestIdIn(itemRequestMap.keySet())
                 .stream()
-                .collect(Collectors.groupingBy(item -> item.getRequest().getId()));
+                .collect(Collectors.groupingBy(ItemDto::getRequestId));
 
-        return itemRequestMap.values()
+        return Spans.inSpan(tracer, "ItemRequestMapper.toResponseRequestWithItems", () -> itemRequestMap.values()
                 .stream()
                 .map(itemRequest -> ItemRequestMapper.toResponseRequestWithItems(itemRequest,
-                        ItemMapper.toItemDtos(responsesToRequestsMap.getOrDefault(itemRequest.getId(),
-                                Collections.emptyList()))))
-                .collect(Collectors.toList());
+                        responsesToRequestsMap.getOrDefault(itemRequest.getId(), Collections.emptyList())))
+                .collect(Collectors.toList()));
     }
 
     @Override
@@ -84,7 +89,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
             throw new NotFoundException("User with id " + userId + " is not found");
         }
 
-        List<ItemDto> responsesToRequest = ItemMapper.toItemDtos(itemRepository.findByRequest_Id(requestId));
+        List<ItemDto> responsesToRequest = itemRepository.findItemDtosByRequestId(requestId);
         return ItemRequestMapper.toResponseRequestWithItems(itemRequest, responsesToRequest);
     }
 
@@ -100,15 +105,20 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 .stream()
                 .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
 
-        Map<Long, List<Item>> responsesToRequestsMap = itemRepository.findAllByRequest_IdIn(itemRequestMap.keySet())
+        Map<Long, List<ItemDto>> responsesToRequestsMap = itemRepository
+                .findItemDtosByRequestIdIn(itemRequestMap.keySet())
                 .stream()
-                .collect(Collectors.groupingBy(item -> item.getRequest().getId()));
+                .collect(Collectors.groupingBy(ItemDto::getRequestId));
 
-        return itemRequestMap.values()
+        return Spans.inSpan(tracer, "ItemRequestMapper.toResponseRequestWithItems", () -> itemRequestMap.values()
                 .stream()
                 .map(itemRequest -> ItemRequestMapper.toResponseRequestWithItems(itemRequest,
-                        ItemMapper.toItemDtos(responsesToRequestsMap.getOrDefault(itemRequest.getId(),
-                                Collections.emptyList()))))
-                .collect(Collectors.toList());
+                        responsesToRequestsMap.getOrDefault(itemRequest.getId(), Collections.emptyList())))
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public long countRequestsByOtherUsers(long userId) {
+        return totalCounts.get("requests:others:" + userId, () -> itemRequestRepository.countByRequestor_IdNot(userId));
     }
 }
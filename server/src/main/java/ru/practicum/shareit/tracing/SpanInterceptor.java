@@ -0,0 +1,63 @@
+package ru.practicum.shareit.tracing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.data.repository.Repository;
+
+/**
+ * Runs a service or repository method in a child span of the current one, named after the service class or
+ * the repository interface and the method. Without a current span, outside of a sampled request, nothing is traced.
+ */
+class SpanInterceptor implements MethodInterceptor {
+    private final ObjectProvider<Tracer> tracer;
+
+    /**
+     * The tracer is looked up on use: advisors are created before most other beans.
+     */
+    SpanInterceptor(ObjectProvider<Tracer> tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Tracer currentTracer = tracer.getObject();
+        if (currentTracer.currentSpan() == null) {
+            return invocation.proceed();
+        }
+
+        String type = typeName(invocation);
+        String method = invocation.getMethod().getName();
+        Span span = currentTracer.nextSpan()
+                .name(type + "." + method)
+                .tag("class", type)
+                .tag("method", method)
+                .start();
+        try (Tracer.SpanInScope scope = currentTracer.withSpan(span)) {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Repositories are proxies, their interface says more than the proxy class.
+     */
+    private static String typeName(MethodInvocation invocation) {
+        Object target = invocation.getThis();
+        if (target == null) {
+            return invocation.getMethod().getDeclaringClass().getSimpleName();
+        }
+        for (Class<?> type : target.getClass().getInterfaces()) {
+            if (Repository.class.isAssignableFrom(type)) {
+                return type.getSimpleName();
+            }
+        }
+        return target.getClass().getSimpleName();
+    }
+}
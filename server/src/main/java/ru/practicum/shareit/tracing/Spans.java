@@ -0,0 +1,31 @@
+package ru.practicum.shareit.tracing;
+
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
+
+import java.util.function.Supplier;
+
+/**
+ * Child spans for work inside a service method that the advisor of {@link TracingConfig} cannot see, like the
+ * static mappers. As with the advisor, nothing is traced without a current span.
+ */
+public final class Spans {
+
+    private Spans() {
+    }
+
+    public static <T> T inSpan(Tracer tracer, String name, Supplier<T> work) {
+        if (tracer.currentSpan() == null) {
+            return work.get();
+        }
+        Span span = tracer.nextSpan().name(name).start();
+        try (Tracer.SpanInScope scope = tracer.withSpan(span)) {
+            return work.get();
+        } catch (RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.tracing;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.Repository;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Spans for every public method of the {@code *ServiceImpl} services and every repository call, children of the
+ * request span Sleuth continues from the gateway's {@code b3} headers. Mappers are static, the hot list methods run
+ * them in spans of their own through {@link Spans}. Finished spans are kept in memory and read or drained as Zipkin
+ * JSON from {@code /actuator/traces}.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public static Advisor tracingAdvisor(ObjectProvider<Tracer> tracer) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new ServiceAndRepositoryMethods(),
+                new SpanInterceptor(tracer));
+        // inside the service timer, outside the transaction, so the service span includes the commit
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return advisor;
+    }
+
+    private static class ServiceAndRepositoryMethods extends StaticMethodMatcherPointcut {
+        ServiceAndRepositoryMethods() {
+            setClassFilter(type -> Repository.class.isAssignableFrom(type)
+                    || type.getName().startsWith("ru.practicum.shareit.")
+                    && type.getSimpleName().endsWith("ServiceImpl"));
+        }
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return Modifier.isPublic(method.getModifiers()) && method.getDeclaringClass() != Object.class;
+        }
+    }
+}
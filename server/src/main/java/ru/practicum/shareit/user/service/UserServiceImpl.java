@@ -7,14 +7,23 @@ import lombok.extern.slf4j.Slf4j;
 import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.calendar.BookingCalendar;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
+import ru.practicum.shareit.booking.summary.ItemBookingView;
+import ru.practicum.shareit.cache.SecondLevelCache;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.UniqueEmailException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Transactional(readOnly = true)
@@ -23,10 +32,25 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final ObjectMapper objectMapper;
+    private final SecondLevelCache secondLevelCache;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingCalendar bookingCalendar;
+    private final ItemBookingSummary itemBookingSummary;
+    private final ItemSearchIndex itemSearchIndex;
 
-    public UserServiceImpl(UserRepository userRepository, ObjectMapper objectMapper) {
+    public UserServiceImpl(UserRepository userRepository, ObjectMapper objectMapper,
+                           SecondLevelCache secondLevelCache, ItemRepository itemRepository,
+                           BookingRepository bookingRepository, BookingCalendar bookingCalendar,
+                           ItemBookingSummary itemBookingSummary, ItemSearchIndex itemSearchIndex) {
         this.userRepository = userRepository;
         this.objectMapper = objectMapper;
+        this.secondLevelCache = secondLevelCache;
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.bookingCalendar = bookingCalendar;
+        this.itemBookingSummary = itemBookingSummary;
+        this.itemSearchIndex = itemSearchIndex;
     }
 
     @Transactional
@@ -56,11 +80,25 @@ public class UserServiceImpl implements UserService {
         return UserMapper.toUserDto(userRepository.save(userToUpdate));
     }
 
+    /**
+     * Deletes the user. The database deletes the user's items and bookings with it, so the booking calendars,
+     * summaries and the search index entries of those items and bookings are read before and updated once the
+     * deletion commits.
+     */
     @Transactional
     @Override
     public void deleteUserById(long userId) {
         log.info("Deleting user with id {}", userId);
+        List<Long> ownedItemIds = itemRepository.findIdsByOwnerId(userId);
+        List<ItemBookingView> bookings = bookingRepository.findItemBookingsByBookerId(userId);
         userRepository.deleteById(userId);
+        secondLevelCache.evictUser(userId);
+        bookingCalendar.evict(ownedItemIds);
+        itemSearchIndex.evictAll(ownedItemIds);
+        bookingCalendar.releaseAll(bookings);
+        Set<Long> itemIds = new HashSet<>(ownedItemIds);
+        bookings.forEach(booking -> itemIds.add(booking.getItemId()));
+        itemBookingSummary.evict(itemIds);
     }
 
     @Override
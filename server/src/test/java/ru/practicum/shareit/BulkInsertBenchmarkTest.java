@@ -0,0 +1,129 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Inserts rows in bulk through every repository and counts the JDBC statements it takes.
+ * Ids come from pooled-lo sequences, so a batch of rows needs one sequence call per 50 ids and one insert
+ * statement per JDBC batch instead of a statement and a round trip per row.
+ * Use {@code -Dbulk.insert.rows=N} to change the number of inserted rows.
+ */
+@Slf4j
+@DataJpaTest
+@DirtiesContext
+public class BulkInsertBenchmarkTest {
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private final int rows = Integer.getInteger("bulk.insert.rows", 1000);
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    public void beforeEach() {
+        owner = em.persist(new User(null, "Owner", "bulk-owner@mail.ru"));
+        booker = em.persist(new User(null, "Booker", "bulk-booker@mail.ru"));
+        item = em.persist(new Item(null, "Item", "Bulk item", true, owner, null, null));
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void saveAll_users_isBatched() {
+        insert("users", userRepository, i -> new User(null, "User " + i, "bulk" + i + "@mail.ru"));
+    }
+
+    @Test
+    public void saveAll_requests_isBatched() {
+        insert("requests", itemRequestRepository, i -> new ItemRequest(0, "Need item " + i, booker, now));
+    }
+
+    @Test
+    public void saveAll_items_isBatched() {
+        insert("items", itemRepository, i -> new Item(null, "Item " + i, "Bulk item", true, owner, null, null));
+    }
+
+    @Test
+    public void saveAll_bookings_isBatched() {
+        insert("bookings", bookingRepository, i -> {
+            Booking booking = new Booking();
+            booking.setStart(now.plusDays(i));
+            booking.setEnd(now.plusDays(i).plusHours(2));
+            booking.setItem(item);
+            booking.setBooker(booker);
+            booking.setStatus(BookingStatus.WAITING);
+            return booking;
+        });
+    }
+
+    @Test
+    public void saveAll_comments_isBatched() {
+        insert("comments", commentRepository, i -> new Comment(null, "Comment " + i, item, booker, now));
+    }
+
+    private <T> void insert(String table, JpaRepository<T, ?> repository, IntFunction<T> entity) {
+        List<T> entities = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            entities.add(entity.apply(i));
+        }
+        Statistics statistics = em.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        long start = System.nanoTime();
+        repository.saveAll(entities);
+        em.flush();
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        em.clear();
+
+        long statements = statistics.getPrepareStatementCount();
+        log.info("Inserted {} {} in {} ms ({} rows/s) with {} statements", rows, table, millis,
+                rows * 1000L / millis, statements);
+        assertEquals(rows, statistics.getEntityInsertCount());
+        // one sequence call and one insert batch per 50 rows, plus one of each for a partly filled range
+        assertTrue(statements <= 2L * (rows / BATCH_SIZE + 1));
+    }
+}
@@ -0,0 +1,183 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.calendar.BookingCalendar;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import javax.persistence.EntityManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Calls the repository methods on hot paths, captures the SQL Hibernate generates for them and runs
+ * {@code EXPLAIN} on it, failing if any statement reads a whole table instead of going through an index.
+ * Parameters are left unbound, so the plan is the generic one every call shares. Works against H2 and PostgreSQL.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "ru.practicum.shareit.QueryPlanTest$CapturedStatements")
+public class QueryPlanTest {
+    private static final LocalDateTime NOW = LocalDateTime.now();
+    private static final Set<Long> IDS = Set.of(1L, 2L, 3L);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManager em;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    private boolean postgres;
+
+    @BeforeEach
+    public void beforeEach() {
+        postgres = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("postgres")));
+        if (postgres) {
+            // tables of a test database are tiny, so a sequential scan would always look cheapest
+            jdbcTemplate.execute("set enable_seqscan = off");
+            jdbcTemplate.execute("set plan_cache_mode = force_generic_plan");
+        }
+    }
+
+    @Test
+    public void hotQueries_useIndexes() {
+        StringBuilder fullScans = new StringBuilder();
+        for (Map.Entry<String, Runnable> query : getHotQueries().entrySet()) {
+            em.clear();
+            CapturedStatements.SQL.clear();
+            query.getValue().run();
+            assertFalse(CapturedStatements.SQL.isEmpty(), query.getKey() + " ran no statement");
+            for (String sql : new ArrayList<>(CapturedStatements.SQL)) {
+                String plan = explain(sql);
+                if (isFullScan(plan)) {
+                    fullScans.append(query.getKey()).append(":\n").append(sql).append("\n").append(plan).append("\n");
+                }
+            }
+        }
+        assertTrue(fullScans.length() == 0, "Queries reading whole tables:\n" + fullScans);
+    }
+
+    private Map<String, Runnable> getHotQueries() {
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        BookingCursor cursor = new BookingCursor(NOW, 1);
+        for (BookingState state : BookingState.values()) {
+            queries.put("findBookerResponses " + state,
+                    () -> bookingRepository.findBookerResponses(1, state, NOW, 10, 10));
+            queries.put("findOwnerResponses " + state,
+                    () -> bookingRepository.findOwnerResponses(1, state, NOW, 10, 10));
+            queries.put("findBookerSlice " + state,
+                    () -> bookingRepository.findBookerSlice(1, state, NOW, cursor, 10));
+            queries.put("findOwnerSlice " + state,
+                    () -> bookingRepository.findOwnerSlice(1, state, NOW, cursor, 10));
+            queries.put("countBooker " + state, () -> bookingRepository.countBooker(1, state, NOW));
+            queries.put("countOwner " + state, () -> bookingRepository.countOwner(1, state, NOW));
+        }
+        queries.put("BookingRepository.findById", () -> bookingRepository.findById(1L));
+        queries.put("BookingRepository.findByIdAndItemOwnerId", () -> bookingRepository.findByIdAndItemOwnerId(1, 1));
+        queries.put("BookingRepository.existsBookingByItemIdAndBookerIdAndEndIsBefore",
+                () -> bookingRepository.existsBookingByItemIdAndBookerIdAndEndIsBefore(1, 1, NOW));
+        queries.put("BookingRepository.findFirstBookingByItem_IdAndStatusNotAndStartAfterOrderByStartAsc",
+                () -> bookingRepository.findFirstBookingByItem_IdAndStatusNotAndStartAfterOrderByStartAsc(1,
+                        BookingStatus.REJECTED, NOW));
+        queries.put("BookingRepository.findFirstBookingByItem_IdAndStatusNotAndStartBeforeOrderByStartDesc",
+                () -> bookingRepository.findFirstBookingByItem_IdAndStatusNotAndStartBeforeOrderByStartDesc(1,
+                        BookingStatus.REJECTED, NOW));
+        queries.put("BookingRepository.findLastAndNextByItemIds",
+                () -> bookingRepository.findLastAndNextByItemIds(IDS, NOW));
+        queries.put("BookingRepository.findByItem_IdAndStatusInAndEndIsAfter",
+                () -> bookingRepository.findByItem_IdAndStatusInAndEndIsAfter(1, BookingCalendar.BLOCKING_STATUSES,
+                        NOW));
+        queries.put("ItemRepository.findItemByOwnerId",
+                () -> itemRepository.findItemByOwnerId(1L, PageRequest.of(1, 10)));
+        queries.put("ItemRepository.countByOwnerId", () -> itemRepository.countByOwnerId(1L));
+        queries.put("ItemRepository.findItemDtosByRequestId", () -> itemRepository.findItemDtosByRequestId(1L));
+        queries.put("ItemRepository.findItemDtosByRequestIdIn", () -> itemRepository.findItemDtosByRequestIdIn(IDS));
+        queries.put("ItemRepository.findItemDtosByIdIn", () -> itemRepository.findItemDtosByIdIn(IDS));
+        queries.put("CommentRepository.findAllByItemId", () -> commentRepository.findAllByItemId(1));
+        queries.put("CommentRepository.findAllByItemIdIn", () -> commentRepository.findAllByItemIdIn(IDS));
+        queries.put("ItemRequestRepository.findByRequestor_Id", () -> itemRequestRepository.findByRequestor_Id(1));
+        // findAllByRequestor_IdNot is left out: it reads nearly every request by design, PostgreSQL serves its
+        // order by created with idx_requests_created while H2 always plans it as a table scan
+        return queries;
+    }
+
+    private String explain(String sql) {
+        int parameters = (int) sql.chars().filter(c -> c == '?').count();
+        if (postgres) {
+            StringBuilder numbered = new StringBuilder();
+            int parameter = 0;
+            for (char c : sql.toCharArray()) {
+                numbered.append(c == '?' ? "$" + ++parameter : String.valueOf(c));
+            }
+            jdbcTemplate.execute("prepare hot_query as " + numbered);
+            try {
+                String arguments = String.join(", ", Collections.nCopies(parameters, "null"));
+                return String.join("\n", jdbcTemplate.queryForList("explain execute hot_query" +
+                        (parameters > 0 ? "(" + arguments + ")" : ""), String.class));
+            } finally {
+                jdbcTemplate.execute("deallocate hot_query");
+            }
+        }
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setNull(i, Types.NULL);
+                }
+                List<String> lines = new ArrayList<>();
+                try (ResultSet plan = statement.executeQuery()) {
+                    while (plan.next()) {
+                        lines.add(plan.getString(1));
+                    }
+                }
+                return String.join("\n", lines);
+            }
+        });
+    }
+
+    private boolean isFullScan(String plan) {
+        return postgres ? plan.contains("Seq Scan") : plan.contains(".tableScan");
+    }
+
+    /**
+     * Collects every statement Hibernate prepares, Hibernate creates it by name from the test's properties.
+     */
+    public static class CapturedStatements implements StatementInspector {
+        private static final List<String> SQL = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SQL.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.calendar.BookingCalendar;
+import ru.practicum.shareit.booking.calendar.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.RequestBooking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.IllegalOperationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fires overlapping bookings for a handful of items from many threads at once and checks that no two
+ * admitted bookings of the same item overlap. Tagged {@code stress} and run with {@code mvn test -Pstress} only.
+ * Use {@code -Dbooking.stress.requests=N} to change the load.
+ */
+@Slf4j
+@Tag("stress")
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingAdmissionStressTest {
+    private static final int ITEMS = 4;
+    private static final int THREADS = 32;
+    private static final int HORIZON_HOURS = 2000;
+
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final List<User> users = new ArrayList<>();
+
+    @AfterEach
+    public void cleanUp() {
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    public void postBooking_whenOverlappingRequestsRaceForSameItems_thenNoOverlapsAdmitted() throws Exception {
+        int requestCount = Integer.getInteger("booking.stress.requests", 10_000);
+        User owner = saveUser("stress-owner@mail.ru");
+        User booker = saveUser("stress-booker@mail.ru");
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            itemIds.add(itemRepository.save(new Item(null, "Stress item " + i, "Booked from many threads",
+                    true, owner, null, null)).getId());
+        }
+
+        LocalDateTime base = LocalDateTime.now().plusYears(1).withNano(0);
+        Random random = new Random(42);
+        List<RequestBooking> requests = new ArrayList<>();
+        for (int i = 0; i < requestCount; i++) {
+            LocalDateTime start = base.plusHours(random.nextInt(HORIZON_HOURS));
+            requests.add(new RequestBooking(start, start.plusHours(1 + random.nextInt(48)),
+                    itemIds.get(random.nextInt(ITEMS))));
+        }
+
+        AtomicInteger admitted = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (RequestBooking request : requests) {
+            futures.add(executor.submit(() -> {
+                startGate.await();
+                try {
+                    bookingService.postBooking(booker.getId(), request);
+                    admitted.incrementAndGet();
+                } catch (IllegalOperationException e) {
+                    refused.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        long startedAt = System.nanoTime();
+        startGate.countDown();
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.MINUTES);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        executor.shutdown();
+
+        Map<Long, List<BookingIntervalView>> byItem = new HashMap<>();
+        for (Long itemId : itemIds) {
+            byItem.put(itemId, bookingRepository.findByItem_IdAndStatusInAndEndIsAfter(itemId,
+                    BookingCalendar.BLOCKING_STATUSES, base));
+        }
+        log.info("{} booking requests from {} threads in {} ms: {} admitted, {} refused",
+                requestCount, THREADS, elapsedMillis, admitted.get(), refused.get());
+
+        assertEquals(requestCount, admitted.get() + refused.get());
+        assertEquals(admitted.get(), byItem.values().stream().mapToInt(List::size).sum());
+        assertTrue(admitted.get() > 0);
+        assertTrue(refused.get() > 0);
+        for (List<BookingIntervalView> bookings : byItem.values()) {
+            bookings.sort(Comparator.comparing(BookingIntervalView::getStart));
+            for (int i = 1; i < bookings.size(); i++) {
+                assertTrue(!bookings.get(i).getStart().isBefore(bookings.get(i - 1).getEnd()),
+                        "Bookings " + bookings.get(i - 1).getId() + " and " + bookings.get(i).getId() + " overlap");
+            }
+        }
+    }
+
+    private User saveUser(String email) {
+        User user = userRepository.save(new User(null, email, email));
+        users.add(user);
+        return user;
+    }
+}
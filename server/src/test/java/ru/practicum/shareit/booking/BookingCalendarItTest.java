@@ -0,0 +1,93 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.FreeSlot;
+import ru.practicum.shareit.booking.dto.RequestBooking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.IllegalOperationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Deletes users through the service, with the deletion committed, and checks that the booking calendars
+ * forget the bookings the database deleted with them.
+ */
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingCalendarItTest {
+    private static final LocalDateTime START = LocalDateTime.now().plusYears(2).withNano(0);
+    private static final LocalDateTime END = START.plusDays(1);
+
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final List<User> users = new ArrayList<>();
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    public void beforeEach() {
+        owner = saveUser("calendar-owner@mail.ru");
+        item = itemRepository.save(new Item(null, "Tent", "Booked and freed", true, owner, null, null));
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        users.stream()
+                .filter(user -> userRepository.existsById(user.getId()))
+                .forEach(userRepository::delete);
+    }
+
+    @Test
+    public void postBooking_whenBookerOfSameSlotDeleted_thenSlotBookedAgain() {
+        User first = saveUser("calendar-first@mail.ru");
+        User second = saveUser("calendar-second@mail.ru");
+        RequestBooking request = new RequestBooking(START, END, item.getId());
+        bookingService.postBooking(first.getId(), request);
+        assertThrows(IllegalOperationException.class, () -> bookingService.postBooking(second.getId(), request));
+
+        userService.deleteUserById(first.getId());
+
+        assertNotNull(bookingService.postBooking(second.getId(), request).getId());
+    }
+
+    @Test
+    public void getFreeSlots_whenBookerDeleted_thenWholePeriodFree() {
+        User booker = saveUser("calendar-booker@mail.ru");
+        bookingService.postBooking(booker.getId(), new RequestBooking(START, END, item.getId()));
+        assertEquals(2, itemService.getFreeSlots(owner.getId(), item.getId(), START.minusDays(1),
+                END.plusDays(1)).size());
+
+        userService.deleteUserById(booker.getId());
+
+        assertEquals(List.of(new FreeSlot(START.minusDays(1), END.plusDays(1))),
+                itemService.getFreeSlots(owner.getId(), item.getId(), START.minusDays(1), END.plusDays(1)));
+    }
+
+    private User saveUser(String email) {
+        User user = userRepository.save(new User(null, email, email));
+        users.add(user);
+        return user;
+    }
+}
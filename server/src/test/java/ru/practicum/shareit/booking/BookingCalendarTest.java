@@ -0,0 +1,212 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.calendar.BookingCalendar;
+import ru.practicum.shareit.booking.calendar.BookingIntervalView;
+import ru.practicum.shareit.booking.calendar.ItemLockStripes;
+import ru.practicum.shareit.booking.dto.FreeSlot;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingView;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingCalendarTest {
+    private static final LocalDateTime DAY = LocalDateTime.now().plusYears(1).withHour(0).withMinute(0)
+            .withSecond(0).withNano(0);
+
+    @InjectMocks
+    private BookingCalendar bookingCalendar;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Spy
+    private ItemLockStripes itemLocks;
+
+    @Test
+    public void isFree_whenCalendarLoaded_thenStoredBookingsBlockPeriod() {
+        Mockito.when(bookingRepository.findByItem_IdAndStatusInAndEndIsAfter(anyLong(), anyCollection(), any()))
+                .thenReturn(List.of(getView(1L, DAY.withHour(10), DAY.withHour(12))));
+
+        assertFalse(bookingCalendar.isFree(1, DAY.withHour(9), DAY.withHour(11)));
+        assertFalse(bookingCalendar.isFree(1, DAY.withHour(11), DAY.withHour(13)));
+        assertFalse(bookingCalendar.isFree(1, DAY.withHour(9), DAY.withHour(13)));
+        assertTrue(bookingCalendar.isFree(1, DAY.withHour(8), DAY.withHour(10)));
+        assertTrue(bookingCalendar.isFree(1, DAY.withHour(12), DAY.withHour(14)));
+        verify(bookingRepository, times(1)).findByItem_IdAndStatusInAndEndIsAfter(eq(1L), anyCollection(), any());
+    }
+
+    @Test
+    public void reserve_whenBookingAdded_thenOverlappingPeriodTaken() {
+        Mockito.when(bookingRepository.findByItem_IdAndStatusInAndEndIsAfter(anyLong(), anyCollection(), any()))
+                .thenReturn(List.of());
+
+        bookingCalendar.reserve(getBooking(1L, DAY.withHour(10), DAY.withHour(12)));
+
+        assertFalse(bookingCalendar.isFree(1, DAY.withHour(11), DAY.withHour(15)));
+        assertTrue(bookingCalendar.isFree(2, DAY.withHour(11), DAY.withHour(15)));
+    }
+
+    @Test
+    public void release_whenBookingRemoved_thenPeriodFree() {
+        Mockito.when(bookingRepository.findByItem_IdAndStatusInAndEndIsAfter(anyLong(), anyCollection(), any()))
+                .thenReturn(List.of());
+        Booking booking = getBooking(1L, DAY.withHour(10), DAY.withHour(12));
+
+        bookingCalendar.reserve(booking);
+        bookingCalendar.release(booking);
+
+        assertTrue(bookingCalendar.isFree(1, DAY.withHour(10), DAY.withHour(12)));
+    }
+
+    @Test
+    public void release_whenStoredBookingsOverlap_thenOtherBookingsStillBlockPeriod() {
+        Mockito.when(bookingRepository.findByItem_IdAndStatusInAndEndIsAfter(anyLong(), anyCollection(), any()))
+                .thenReturn(List.of(getView(1L, DAY.withHour(10), DAY.withHour(14)),
+                        getView(2L, DAY.withHour(12), DAY.withHour(16))));
+
+        bookingCalendar.release(getBooking(1L, DAY.withHour(10), DAY.withHour(14)));
+
+        assertTrue(bookingCalendar.isFree(1, DAY.withHour(10), DAY.withHour(12)));
+        assertFalse(bookingCalendar.isFree(1, DAY.withHour(13), DAY.withHour(14)));
+        assertFalse(bookingCalendar.isFree(1, DAY.withHour(15), DAY.withHour(17)));
+    }
+
+    @Test
+    public void getFreeSlots_whenBookingsInPeriod_thenGapsReturned() {
+        Mockito.when(bookingRepository.findByItem_IdAndStatusInAndEndIsAfter(anyLong(), anyCollection(), any()))
+                .thenReturn(List.of(getView(1L, DAY.withHour(8), DAY.withHour(10)),
+                        getView(2L, DAY.withHour(12), DAY.withHour(13)),
+                        getView(3L, DAY.withHour(17), DAY.withHour(20))));
+
+        List<FreeSlot> slots = bookingCalendar.getFreeSlots(1, DAY.withHour(9), DAY.withHour(18));
+
+        assertEquals(List.of(new FreeSlot(DAY.withHour(10), DAY.withHour(12)),
+                new FreeSlot(DAY.withHour(13), DAY.withHour(17))), slots);
+    }
+
+    @Test
+    public void getFreeSlots_whenNoBookings_thenWholePeriodReturned() {
+        Mockito.when(bookingRepository.findByItem_IdAndStatusInAndEndIsAfter(anyLong(), anyCollection(), any()))
+                .thenReturn(List.of());
+
+        List<FreeSlot> slots = bookingCalendar.getFreeSlots(1, DAY, DAY.plusDays(1));
+
+        assertEquals(List.of(new FreeSlot(DAY, DAY.plusDays(1))), slots);
+    }
+
+    @Test
+    public void releaseAll_whenBookerDeleted_thenLoadedCalendarsFreed() {
+        Mockito.when(bookingRepository.findByItem_IdAndStatusInAndEndIsAfter(anyLong(), anyCollection(), any()))
+                .thenReturn(List.of(getView(1L, DAY.withHour(10), DAY.withHour(12))));
+        assertFalse(bookingCalendar.isFree(1, DAY.withHour(10), DAY.withHour(12)));
+
+        bookingCalendar.releaseAll(List.of(getItemBooking(1L, 1L), getItemBooking(2L, 2L)));
+
+        assertTrue(bookingCalendar.isFree(1, DAY.withHour(10), DAY.withHour(12)));
+        verify(bookingRepository, never()).findByItem_IdAndStatusInAndEndIsAfter(eq(2L), anyCollection(), any());
+    }
+
+    @Test
+    public void evict_whenItemDeleted_thenCalendarLoadedAgain() {
+        Mockito.when(bookingRepository.findByItem_IdAndStatusInAndEndIsAfter(anyLong(), anyCollection(), any()))
+                .thenReturn(List.of(getView(1L, DAY.withHour(10), DAY.withHour(12))))
+                .thenReturn(List.of());
+        assertFalse(bookingCalendar.isFree(1, DAY.withHour(10), DAY.withHour(12)));
+
+        bookingCalendar.evict(List.of(1L));
+
+        assertTrue(bookingCalendar.isFree(1, DAY.withHour(10), DAY.withHour(12)));
+        verify(bookingRepository, times(2)).findByItem_IdAndStatusInAndEndIsAfter(eq(1L), anyCollection(), any());
+    }
+
+    @Test
+    public void evictEmpty_dropsOnlyCalendarsWithoutBookings() {
+        Mockito.when(bookingRepository.findByItem_IdAndStatusInAndEndIsAfter(eq(1L), anyCollection(), any()))
+                .thenReturn(List.of(getView(1L, DAY.withHour(10), DAY.withHour(12))));
+        Mockito.when(bookingRepository.findByItem_IdAndStatusInAndEndIsAfter(eq(2L), anyCollection(), any()))
+                .thenReturn(List.of());
+        bookingCalendar.isFree(1, DAY, DAY.plusDays(1));
+        bookingCalendar.isFree(2, DAY, DAY.plusDays(1));
+
+        bookingCalendar.evictEmpty();
+        bookingCalendar.isFree(1, DAY, DAY.plusDays(1));
+        bookingCalendar.isFree(2, DAY, DAY.plusDays(1));
+
+        verify(bookingRepository, times(1)).findByItem_IdAndStatusInAndEndIsAfter(eq(1L), anyCollection(), any());
+        verify(bookingRepository, times(2)).findByItem_IdAndStatusInAndEndIsAfter(eq(2L), anyCollection(), any());
+    }
+
+    private Booking getBooking(long id, LocalDateTime start, LocalDateTime end) {
+        Item item = new Item();
+        item.setId(1L);
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setItem(item);
+        return booking;
+    }
+
+    private ItemBookingView getItemBooking(long id, long itemId) {
+        return new ItemBookingView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return DAY.withHour(10);
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return DAY.withHour(12);
+            }
+
+            @Override
+            public Long getBookerId() {
+                return 1L;
+            }
+        };
+    }
+
+    private BookingIntervalView getView(long id, LocalDateTime start, LocalDateTime end) {
+        return new BookingIntervalView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return end;
+            }
+        };
+    }
+}
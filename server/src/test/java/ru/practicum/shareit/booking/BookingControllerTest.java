@@ -10,12 +10,14 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.controller.BookingController;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingSlice;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.dto.RequestBooking;
 import ru.practicum.shareit.booking.dto.ResponseBooking;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 import org.junit.jupiter.api.Test;
@@ -28,11 +30,13 @@ import java.util.List;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -103,6 +107,18 @@ public class BookingControllerTest {
         verify(bookingService).updateBookingStatus(1, true, 1);
     }
 
+    @Test
+    public void updateBookingStatus_whenChangedConcurrently_thenConflict() throws Exception {
+        when(bookingService.updateBookingStatus(anyLong(), anyBoolean(), anyLong()))
+                .thenThrow(new ConflictException("Booking with id 1 was changed by another request"));
+
+        mvc.perform(patch("/bookings/1")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("approved", "true")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     public void getBookingById() throws Exception {
         when(bookingService.getBookingById(anyLong(), anyLong()))
@@ -144,6 +160,68 @@ public class BookingControllerTest {
         verify(bookingService).getAllBookingsByBooker(BookingState.ALL, 1, 0, 10);
     }
 
+    @Test
+    public void getAllByBooker_whenCursorGiven_thenNextCursorInHeader() throws Exception {
+        when(bookingService.getBookingSliceByBooker(any(), anyLong(), anyString(), anyInt()))
+                .thenReturn(new BookingSlice(List.of(responseBooking), "next"));
+
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("cursor", "")
+                        .param("size", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(responseBooking.getId()), Long.class));
+        verify(bookingService).getBookingSliceByBooker(BookingState.ALL, 1, "", 1);
+    }
+
+    @Test
+    public void getAllByItemOwner_whenLastSlice_thenNoNextCursor() throws Exception {
+        when(bookingService.getBookingSliceByItemOwner(any(), anyLong(), anyString(), anyInt()))
+                .thenReturn(new BookingSlice(List.of(responseBooking), null));
+
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("state", "WAITING")
+                        .param("cursor", "abc")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$", hasSize(1)));
+        verify(bookingService).getBookingSliceByItemOwner(BookingState.WAITING, 1, "abc", 10);
+    }
+
+    @Test
+    public void getAllByBooker_whenTotalRequested_thenTotalCountInHeader() throws Exception {
+        when(bookingService.getAllBookingsByBooker(any(), anyLong(), anyInt(), anyInt()))
+                .thenReturn(List.of(responseBooking));
+        when(bookingService.countBookingsByBooker(any(), anyLong())).thenReturn(42L);
+
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("total", "true")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "42"))
+                .andExpect(jsonPath("$", hasSize(1)));
+        verify(bookingService).countBookingsByBooker(BookingState.ALL, 1);
+    }
+
+    @Test
+    public void getAllByItemOwner_whenTotalNotRequested_thenNotCounted() throws Exception {
+        when(bookingService.getAllBookingsByItemOwner(any(), anyLong(), anyInt(), anyInt()))
+                .thenReturn(List.of(responseBooking));
+
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Total-Count"));
+        verify(bookingService, never()).countBookingsByItemOwner(any(), anyLong());
+    }
+
     @Test
     public void getAllByItemOwner() throws Exception {
         when(bookingService.getAllBookingsByItemOwner(any(), anyLong(), anyInt(), anyInt()))
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.dto.ResponseBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the memory allocated per booking list request when bookings are read as entities and mapped afterwards
+ * against reading them straight into {@link ResponseBooking}. The entity path runs in a read-only session, as it
+ * does in the service, so the difference is hydration and persistence context bookkeeping, not dirty checking.
+ * Use {@code -Dbooking.projection.requests=N} to change the number of measured requests.
+ */
+@Slf4j
+@DataJpaTest
+@DirtiesContext
+public class BookingProjectionBenchmarkTest {
+    private static final int BOOKINGS = 200;
+    private static final int ITEMS = 20;
+    private static final int[] PAGE_SIZES = {10, 50};
+    // the entity graph query the booker's list ran before it was projected
+    private static final String SELECT_ENTITIES = "select b from Booking b join fetch b.item join fetch b.booker " +
+            "where b.booker.id = ?1 order by b.start desc";
+
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    public void findBookerResponses_allocatesLessThanEntitiesAndMapper() {
+        int requests = Integer.getInteger("booking.projection.requests", 200);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        User owner = em.persist(new User(null, "Owner", "owner@mail.ru"));
+        User booker = em.persist(new User(null, "Booker", "booker@mail.ru"));
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            User requestor = em.persist(new User(null, "Requestor " + i, "requestor" + i + "@mail.ru"));
+            ItemRequest request = em.persist(new ItemRequest(0, "Need item " + i, requestor, now));
+            items.add(em.persist(new Item(null, "Item " + i, "Benchmark item", true, owner, request, null)));
+        }
+        for (int i = 0; i < BOOKINGS; i++) {
+            Booking booking = new Booking();
+            booking.setStart(now.minusDays(i));
+            booking.setEnd(now.minusDays(i).plusHours(2));
+            booking.setItem(items.get(i % ITEMS));
+            booking.setBooker(booker);
+            booking.setStatus(BookingStatus.APPROVED);
+            em.persist(booking);
+        }
+        em.flush();
+        em.clear();
+        em.getEntityManager().unwrap(Session.class).setDefaultReadOnly(true);
+
+        for (int size : PAGE_SIZES) {
+            Supplier<List<ResponseBooking>> entities = () -> BookingMapper.toResponseBookingList(em.getEntityManager()
+                    .createQuery(SELECT_ENTITIES, Booking.class)
+                    .setParameter(1, booker.getId())
+                    .setMaxResults(size)
+                    .getResultList());
+            Supplier<List<ResponseBooking>> projection = () -> bookingRepository.findBookerResponses(booker.getId(),
+                    BookingState.ALL, now, 0, size);
+
+            assertEquals(entities.get(), projection.get());
+            em.clear();
+            measure(entities, requests);
+            measure(projection, requests);
+
+            long entityBytes = measure(entities, requests);
+            long projectionBytes = measure(projection, requests);
+            log.info("Booking list of {} rows: entities and mapper {} KB per request, projection {} KB per request",
+                    size, entityBytes / 1024, projectionBytes / 1024);
+            if (entityBytes > 0) {
+                assertTrue(projectionBytes < entityBytes);
+            }
+        }
+    }
+
+    private long measure(Supplier<List<ResponseBooking>> request, int requests) {
+        long before = allocatedBytes();
+        for (int i = 0; i < requests; i++) {
+            request.get();
+            // every request starts with an empty persistence context, as it does with one transaction per request
+            em.clear();
+        }
+        return (allocatedBytes() - before) / requests;
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
@@ -6,8 +6,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.dto.ResponseBooking;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
@@ -15,15 +17,21 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 @DataJpaTest
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 public class BookingRepositoryTest {
+    // between the past test booking and the future one
+    private static final LocalDateTime NOW = LocalDateTime.of(2023, 11, 1, 12, 0);
+    private static final long OWNER_ID = 1L;
+    private static final long BOOKER_ID = 2L;
+
     @Autowired
     private TestEntityManager em;
     @Autowired
@@ -44,18 +52,6 @@ public class BookingRepositoryTest {
         em.persist(getTestBooking2());
     }
 
-    @Test
-    public void findByBooker_IdOrderByStartDesc() {
-        Iterable<Booking> bookings = bookingRepository.findByBooker_IdOrderByStartDesc(booking1.getBooker().getId(),
-                PageRequest.ofSize(10));
-        assertNotNull(bookings);
-        assertThat(bookings, iterableWithSize(equalTo(2)));
-        booking1.setId(1);
-        booking2.setId(2);
-
-        assertThat(bookings, containsInRelativeOrder(booking2, booking1));
-    }
-
     @Test
     public void findByIdAndItemOwnerId() {
         long bookingId = 2L;
@@ -73,139 +69,172 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    public void findByBooker_IdAndStatusOrderByStartDesc() {
-        booking1.setStatus(BookingStatus.APPROVED);
-        em.persist(booking1);
+    public void updateStatus_whenStatusMatches_thenUpdatedAndVersionIncremented() {
+        int updated = bookingRepository.updateStatus(2L, 1L, BookingStatus.WAITING, BookingStatus.APPROVED);
 
-        Iterable<Booking> bookings = bookingRepository.findByBooker_IdAndStatusOrderByStartDesc(booking1.getBooker().getId(),
-                BookingStatus.APPROVED, PageRequest.ofSize(10));
+        assertThat(updated, equalTo(1));
+        Booking booking = bookingRepository.findById(2L).orElseThrow();
+        assertThat(booking.getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(booking.getVersion(), equalTo(1L));
+    }
 
-        assertNotNull(bookings);
-        assertThat(bookings, iterableWithSize(equalTo(1)));
-        booking1.setId(1);
-        booking2.setId(2);
+    @Test
+    public void updateStatus_whenStatusAlreadyChanged_thenNothingUpdated() {
+        bookingRepository.updateStatus(2L, 1L, BookingStatus.WAITING, BookingStatus.REJECTED);
 
-        assertThat(bookings, contains(booking1));
+        int updated = bookingRepository.updateStatus(2L, 1L, BookingStatus.WAITING, BookingStatus.APPROVED);
 
+        assertThat(updated, equalTo(0));
+        assertThat(bookingRepository.findById(2L).orElseThrow().getStatus(), equalTo(BookingStatus.REJECTED));
     }
 
     @Test
-   public void findByBooker_IdAndEndIsBeforeOrderByStartDesc() {
-        Iterable<Booking> bookings = bookingRepository.findByBooker_IdAndEndIsBeforeOrderByStartDesc(booking1.getBooker().getId(),
-                LocalDateTime.now(), PageRequest.ofSize(10));
-        assertThat(bookings, iterableWithSize(equalTo(1)));
-        booking1.setId(1);
-        booking2.setId(2);
-
-        assertThat(bookings, contains(booking1));
+    public void updateStatus_whenUserIsNotOwner_thenNothingUpdated() {
+        int updated = bookingRepository.updateStatus(2L, 2L, BookingStatus.WAITING, BookingStatus.APPROVED);
+
+        assertThat(updated, equalTo(0));
+        assertThat(bookingRepository.findById(2L).orElseThrow().getStatus(), equalTo(BookingStatus.WAITING));
     }
 
     @Test
-    public void findByBooker_IdAndStartIsAfterOrderByStartDesc() {
-        Iterable<Booking> bookings = bookingRepository.findByBooker_IdAndStartIsAfterOrderByStartDesc(booking1.getBooker().getId(),
-                LocalDateTime.now(), PageRequest.ofSize(10));
-
-        assertNotNull(bookings);
-        assertThat(bookings, iterableWithSize(equalTo(1)));
-        booking1.setId(1);
-        booking2.setId(2);
-
-        assertThat(bookings, containsInRelativeOrder(booking2));
+    public void findBookerSlice_whenCursorGiven_thenContinuesAfterIt() {
+        long bookerId = booking1.getBooker().getId();
+        List<ResponseBooking> first = bookingRepository.findBookerSlice(bookerId, BookingState.ALL, LocalDateTime.now(),
+                null, 1);
+        assertThat(first, iterableWithSize(1));
+        assertThat(first.get(0).getStart(), equalTo(booking2.getStart()));
+
+        List<ResponseBooking> second = bookingRepository.findBookerSlice(bookerId, BookingState.ALL, LocalDateTime.now(),
+                BookingCursor.of(first.get(0)), 2);
+        assertThat(second, iterableWithSize(1));
+        assertThat(second.get(0).getStart(), equalTo(booking1.getStart()));
     }
 
     @Test
-    public void findByBooker_IdAndStartIsBeforeAndEndIsAfterOrderByStartDesc() {
-        Iterable<Booking> bookings = bookingRepository.findByBooker_IdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(booking1.getBooker().getId(),
-                LocalDateTime.now(), LocalDateTime.now(), PageRequest.ofSize(10));
-        assertThat(bookings, iterableWithSize(equalTo(0)));
+    public void findOwnerSlice_whenStateWaiting_thenOrderedByStartDesc() {
+        List<ResponseBooking> bookings = bookingRepository.findOwnerSlice(1L, BookingState.WAITING, LocalDateTime.now(),
+                null, 10);
+
+        assertThat(bookings, iterableWithSize(2));
+        assertThat(bookings.get(0).getStart(), equalTo(booking2.getStart()));
+        assertThat(bookingRepository.findOwnerSlice(1L, BookingState.REJECTED, LocalDateTime.now(), null, 10),
+                iterableWithSize(0));
     }
 
     @Test
-    public void findFirstBookingByItem_IdAndStatusNotAndStartAfterOrderByStartAsc() { //Next Booking
-        Optional<Booking> optionalBooking = bookingRepository
-                .findFirstBookingByItem_IdAndStatusNotAndStartAfterOrderByStartAsc(booking1.getItem().getId(),
-                BookingStatus.REJECTED, LocalDateTime.now());
-
-        AssertionsForClassTypes.assertThat(optionalBooking)
-                .isPresent()
-                .hasValueSatisfying(booking -> AssertionsForClassTypes.assertThat(booking)
-                        .hasFieldOrPropertyWithValue("id", 2L));
+    public void findBookerResponses_whenOffsetGiven_thenProjectedPageReturned() {
+        long bookerId = booking1.getBooker().getId();
+
+        List<ResponseBooking> bookings = bookingRepository.findBookerResponses(bookerId, BookingState.ALL,
+                LocalDateTime.now(), 1, 10);
+
+        assertThat(bookings, iterableWithSize(1));
+        ResponseBooking booking = bookings.get(0);
+        assertThat(booking.getStart(), equalTo(booking1.getStart()));
+        assertThat(booking.getStatus(), equalTo(booking1.getStatus()));
+        assertThat(booking.getBooker().getId(), equalTo(bookerId));
+        assertThat(booking.getBooker().getEmail(), notNullValue());
+        assertThat(booking.getItem().getName(), equalTo(booking1.getItem().getName()));
+        assertThat(booking.getItem().getRequestId(), nullValue());
     }
 
     @Test
-    public void findFirstBookingByItem_IdAndStatusNotAndStartBeforeOrderByStartDesc() { //Last Booking
-        Optional<Booking> optionalBooking = bookingRepository
-                .findFirstBookingByItem_IdAndStatusNotAndStartBeforeOrderByStartDesc(booking1.getItem().getId(),
-                        BookingStatus.REJECTED, LocalDateTime.now());
-
-        AssertionsForClassTypes.assertThat(optionalBooking)
-                .isPresent()
-                .hasValueSatisfying(booking -> AssertionsForClassTypes.assertThat(booking)
-                        .hasFieldOrPropertyWithValue("id", 1L));
+    public void findOwnerResponses_whenStateWaiting_thenAllWaitingBookingsReturned() {
+        assertThat(bookingRepository.findOwnerResponses(1L, BookingState.WAITING, LocalDateTime.now(), 0, 10),
+                iterableWithSize(2));
+        assertThat(bookingRepository.findOwnerResponses(2L, BookingState.WAITING, LocalDateTime.now(), 0, 10),
+                iterableWithSize(0));
     }
 
-      @Test
-    public void findByOwner_IdOrderByStartDesc() {
-        long itemOwnerId = 1L;
-
-        Iterable<Booking> bookings = bookingRepository.findByOwner_IdOrderByStartDesc(itemOwnerId,
-                  PageRequest.ofSize(10));
-        assertNotNull(bookings);
-        assertThat(bookings, iterableWithSize(equalTo(2)));
-        booking1.setId(1);
-        booking2.setId(2);
-
-        assertThat(bookings, containsInRelativeOrder(booking2, booking1));
+    @Test
+    public void countBookerAndOwner_whenStateGiven_thenMatchSlices() {
+        long bookerId = booking1.getBooker().getId();
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThat(bookingRepository.countBooker(bookerId, BookingState.ALL, now), equalTo(2L));
+        assertThat(bookingRepository.countBooker(bookerId, BookingState.REJECTED, now), equalTo(0L));
+        assertThat(bookingRepository.countOwner(1L, BookingState.WAITING, now), equalTo((long) bookingRepository
+                .findOwnerSlice(1L, BookingState.WAITING, now, null, 10).size()));
     }
 
     @Test
-    public void findByOwner_IdAndStateCurrent() {
-        long itemOwnerId = 1L;
+    public void findBookerResponses_whenStateAll_thenOrderedByStartDesc() {
+        assertThat(getIds(bookingRepository.findBookerResponses(BOOKER_ID, BookingState.ALL, NOW, 0, 10)),
+                contains(2L, 1L));
+    }
 
-        Iterable<Booking> bookings = bookingRepository.findByOwner_IdAndStateCurrent(itemOwnerId,
-                LocalDateTime.now(), LocalDateTime.now(), PageRequest.ofSize(10));
-        assertThat(bookings, iterableWithSize(equalTo(0)));
+    @Test
+    public void findBookerResponses_whenStateGiven_thenOnlyBookingsInThatState() {
+        bookingRepository.updateStatus(1L, OWNER_ID, BookingStatus.WAITING, BookingStatus.REJECTED);
+
+        assertThat(getIds(bookingRepository.findBookerResponses(BOOKER_ID, BookingState.PAST, NOW, 0, 10)),
+                contains(1L));
+        assertThat(getIds(bookingRepository.findBookerResponses(BOOKER_ID, BookingState.FUTURE, NOW, 0, 10)),
+                contains(2L));
+        assertThat(getIds(bookingRepository.findBookerResponses(BOOKER_ID, BookingState.CURRENT, NOW, 0, 10)),
+                empty());
+        assertThat(getIds(bookingRepository.findBookerResponses(BOOKER_ID, BookingState.CURRENT,
+                booking1.getStart().plusMinutes(30), 0, 10)), contains(1L));
+        assertThat(getIds(bookingRepository.findBookerResponses(BOOKER_ID, BookingState.WAITING, NOW, 0, 10)),
+                contains(2L));
+        assertThat(getIds(bookingRepository.findBookerResponses(BOOKER_ID, BookingState.REJECTED, NOW, 0, 10)),
+                contains(1L));
     }
 
     @Test
-    public void findByOwner_IdAndStatePast() {
-        long itemOwnerId = 1L;
-        Iterable<Booking> bookings = bookingRepository.findByOwner_IdAndStatePast(itemOwnerId,
-                LocalDateTime.now(), PageRequest.ofSize(10));
-        assertThat(bookings, iterableWithSize(equalTo(1)));
-        booking1.setId(1);
-        booking2.setId(2);
+    public void findOwnerResponses_whenStateAll_thenOrderedByStartDesc() {
+        assertThat(getIds(bookingRepository.findOwnerResponses(OWNER_ID, BookingState.ALL, NOW, 0, 10)),
+                contains(2L, 1L));
+    }
 
-        assertThat(bookings, contains(booking1));
+    @Test
+    public void findOwnerResponses_whenStateGiven_thenOnlyBookingsInThatState() {
+        bookingRepository.updateStatus(2L, OWNER_ID, BookingStatus.WAITING, BookingStatus.REJECTED);
+
+        assertThat(getIds(bookingRepository.findOwnerResponses(OWNER_ID, BookingState.PAST, NOW, 0, 10)),
+                contains(1L));
+        assertThat(getIds(bookingRepository.findOwnerResponses(OWNER_ID, BookingState.FUTURE, NOW, 0, 10)),
+                contains(2L));
+        assertThat(getIds(bookingRepository.findOwnerResponses(OWNER_ID, BookingState.CURRENT, NOW, 0, 10)),
+                empty());
+        assertThat(getIds(bookingRepository.findOwnerResponses(OWNER_ID, BookingState.CURRENT,
+                booking2.getStart().plusMinutes(30), 0, 10)), contains(2L));
+        assertThat(getIds(bookingRepository.findOwnerResponses(OWNER_ID, BookingState.REJECTED, NOW, 0, 10)),
+                contains(2L));
     }
 
     @Test
-    public void findByOwner_IdAndStateFuture() {
-        long itemOwnerId = 1L;
-        Iterable<Booking> bookings = bookingRepository.findByOwner_IdAndStateFuture(itemOwnerId,
-                LocalDateTime.now(), PageRequest.ofSize(10));
+    public void findOwnerSlice_whenStateFuture_thenSameAsOffsetPage() {
+        assertThat(getIds(bookingRepository.findOwnerSlice(OWNER_ID, BookingState.FUTURE, NOW, null, 10)),
+                equalTo(getIds(bookingRepository.findOwnerResponses(OWNER_ID, BookingState.FUTURE, NOW, 0, 10))));
+    }
 
-        assertNotNull(bookings);
-        assertThat(bookings, iterableWithSize(equalTo(1)));
-        booking2.setId(2);
+    @Test
+    public void findFirstBookingByItem_IdAndStatusNotAndStartAfterOrderByStartAsc() { //Next Booking
+        Optional<Booking> optionalBooking = bookingRepository
+                .findFirstBookingByItem_IdAndStatusNotAndStartAfterOrderByStartAsc(booking1.getItem().getId(),
+                BookingStatus.REJECTED, NOW);
 
-        assertThat(bookings, contains(booking2));
+        AssertionsForClassTypes.assertThat(optionalBooking)
+                .isPresent()
+                .hasValueSatisfying(booking -> AssertionsForClassTypes.assertThat(booking)
+                        .hasFieldOrPropertyWithValue("id", 2L));
     }
 
     @Test
-    public void findByOwner_IdAndStatus() {
-        long itemOwnerId = 1L;
-        booking2.setStatus(BookingStatus.REJECTED);
-        em.persist(booking2);
-
-        Iterable<Booking> bookings = bookingRepository.findByOwner_IdAndStatus(itemOwnerId, BookingStatus.REJECTED,
-                PageRequest.ofSize(10));
+    public void findFirstBookingByItem_IdAndStatusNotAndStartBeforeOrderByStartDesc() { //Last Booking
+        Optional<Booking> optionalBooking = bookingRepository
+                .findFirstBookingByItem_IdAndStatusNotAndStartBeforeOrderByStartDesc(booking1.getItem().getId(),
+                        BookingStatus.REJECTED, NOW);
 
-        assertThat(bookings, iterableWithSize(equalTo(1)));
-        booking1.setId(1);
-        booking2.setId(2);
+        AssertionsForClassTypes.assertThat(optionalBooking)
+                .isPresent()
+                .hasValueSatisfying(booking -> AssertionsForClassTypes.assertThat(booking)
+                        .hasFieldOrPropertyWithValue("id", 1L));
+    }
 
-        assertThat(bookings, contains(booking2));
+    private static List<Long> getIds(List<ResponseBooking> bookings) {
+        return bookings.stream().map(ResponseBooking::getId).collect(Collectors.toList());
     }
 
     private Booking getTestBooking1() { //past
@@ -213,7 +242,7 @@ public class BookingRepositoryTest {
         booking.setStart(LocalDateTime.of(2023, 10, 15, 9, 0));
         booking.setEnd(LocalDateTime.of(2023, 10, 15, 10, 0));
         booking.setItem(new Item(1L, "Test item", "Test item description", true,
-                new User(1L, "Test User", "test@mail.ru"), null));
+                new User(1L, "Test User", "test@mail.ru"), null, 0L));
         booking.setBooker(new User(2L, "Test User", "test@mail.ru"));
         booking.setStatus(BookingStatus.WAITING);
 
@@ -225,7 +254,7 @@ public class BookingRepositoryTest {
         booking.setStart(LocalDateTime.of(2023, 11, 26, 9, 0));
         booking.setEnd(LocalDateTime.of(2023, 11, 26, 10, 0));
         booking.setItem(new Item(1L, "Test item", "Test item description", true, new User(1L, "Test User",
-                "test@mail.ru"), null));
+                "test@mail.ru"), null, 0L));
         booking.setBooker(new User(2L, "Test User", "test@mail.ru"));
         booking.setStatus(BookingStatus.WAITING);
 
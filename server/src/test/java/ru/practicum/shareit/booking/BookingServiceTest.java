@@ -5,9 +5,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.booking.calendar.BookingCalendar;
+import ru.practicum.shareit.booking.calendar.ItemLockStripes;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingSlice;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.dto.RequestBooking;
 import ru.practicum.shareit.booking.dto.ResponseBooking;
@@ -15,21 +20,26 @@ import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.IllegalOperationException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.TotalCountCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.iterableWithSize;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -44,11 +54,20 @@ public class BookingServiceTest {
     private UserRepository userRepository;
     @Mock
     private ItemRepository itemRepository;
+    @Mock
+    private BookingCalendar bookingCalendar;
+    @Spy
+    private ItemLockStripes itemLockStripes = new ItemLockStripes();
+    @Mock
+    private ItemBookingSummary itemBookingSummary;
+    @Spy
+    private TotalCountCache totalCountCache = new TotalCountCache(60_000, 100);
 
     @Test
     public void postBooking() {
         Mockito.when(itemRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(getTestItem()));
         Mockito.when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(getTestBooker()));
+        Mockito.when(bookingCalendar.isFree(Mockito.anyLong(), Mockito.any(), Mockito.any())).thenReturn(true);
         Mockito.when(bookingRepository.save(Mockito.any(Booking.class))).thenReturn(getTestBooking());
 
         Booking testBooking = getTestBooking();
@@ -57,10 +76,26 @@ public class BookingServiceTest {
 
         ResponseBooking booking = bookingService.postBooking(2, requestBooking);
         assertEquals(BookingMapper.toResponseBooking(testBooking), booking);
+        verify(bookingCalendar).reserve(testBooking);
+        verify(itemBookingSummary).onBooked(testBooking);
         testBooking.setId(0);
         verify(bookingRepository).save(testBooking);
     }
 
+    @Test
+    public void postBooking_whenPeriodIsAlreadyBooked_thenIllegalOperationExceptionThrown() {
+        Mockito.when(itemRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(getTestItem()));
+        Mockito.when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(getTestBooker()));
+        Mockito.when(bookingCalendar.isFree(Mockito.anyLong(), Mockito.any(), Mockito.any())).thenReturn(false);
+
+        Booking testBooking = getTestBooking();
+        RequestBooking requestBooking = new RequestBooking(testBooking.getStart(),
+                testBooking.getEnd(), testBooking.getItem().getId());
+        assertThrows(IllegalOperationException.class, () -> bookingService.postBooking(2, requestBooking));
+        verify(bookingRepository, never()).save(Mockito.any());
+        verify(bookingCalendar, never()).reserve(Mockito.any());
+    }
+
     @Test
     public void postBooking_whenIncorrectItemId_thenThrowNotFoundException() {
         RequestBooking requestBooking = new RequestBooking(LocalDateTime.now(), LocalDateTime.now().plusDays(1), 1L);
@@ -86,6 +121,50 @@ public class BookingServiceTest {
         verify(bookingRepository, never()).save(Mockito.any());
     }
 
+    @Test
+    public void postBookings_whenAllIsCorrect_thenAllSaved() {
+        Booking testBooking = getTestBooking();
+        Booking testBooking3 = getTestBooking3();
+        Mockito.when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(getTestBooker()));
+        Mockito.when(itemRepository.findAllById(Mockito.any())).thenReturn(List.of(getTestItem()));
+        Mockito.when(bookingCalendar.isFree(Mockito.anyLong(), Mockito.any(), Mockito.any())).thenReturn(true);
+        Mockito.when(bookingRepository.save(Mockito.any(Booking.class))).thenReturn(testBooking, testBooking3);
+
+        List<ResponseBooking> bookings = bookingService.postBookings(2, List.of(
+                new RequestBooking(testBooking.getStart(), testBooking.getEnd(), 1L),
+                new RequestBooking(testBooking3.getStart(), testBooking3.getEnd(), 1L)));
+        assertEquals(BookingMapper.toResponseBookingList(List.of(testBooking, testBooking3)), bookings);
+        verify(itemRepository).findAllById(Set.of(1L));
+        verify(bookingRepository, times(2)).save(Mockito.any(Booking.class));
+        verify(bookingCalendar).reserve(testBooking);
+        verify(bookingCalendar).reserve(testBooking3);
+    }
+
+    @Test
+    public void postBookings_whenItemIsNotFound_thenNothingSaved() {
+        Mockito.when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(getTestBooker()));
+        Mockito.when(itemRepository.findAllById(Mockito.any())).thenReturn(List.of(getTestItem()));
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        assertThrows(NotFoundException.class, () -> bookingService.postBookings(2, List.of(
+                new RequestBooking(start, start.plusDays(1), 1L),
+                new RequestBooking(start, start.plusDays(1), 99L))));
+        verify(bookingRepository, never()).save(Mockito.any());
+    }
+
+    @Test
+    public void postBookings_whenOneBookingIsInvalid_thenNothingSaved() {
+        Mockito.when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(getTestBooker()));
+        Mockito.when(itemRepository.findAllById(Mockito.any())).thenReturn(List.of(getTestItem()));
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        assertThrows(IllegalOperationException.class, () -> bookingService.postBookings(2, List.of(
+                new RequestBooking(start, start.plusDays(1), 1L),
+                new RequestBooking(start.plusDays(1), start, 1L))));
+        verify(bookingRepository, never()).save(Mockito.any());
+        verify(bookingCalendar, never()).reserve(Mockito.any());
+    }
+
     @Test
     public void getBookingById_whenIdIncorrect_thenNotFoundException() {
         Mockito.when(bookingRepository.findById(Mockito.anyLong())).thenThrow(NotFoundException.class);
@@ -112,16 +191,80 @@ public class BookingServiceTest {
         Booking updatedBooking = getTestBooking();
         updatedBooking.setStatus(BookingStatus.APPROVED);
 
-        Mockito.when(bookingRepository.findByIdAndItemOwnerId(Mockito.anyLong(), Mockito.anyLong()))
-                .thenReturn(Optional.of(booking));
-        Mockito.when(bookingRepository.save(Mockito.any())).thenReturn(updatedBooking);
+        Mockito.when(bookingRepository.updateStatus(booking.getId(), booking.getItem().getOwner().getId(),
+                BookingStatus.WAITING, BookingStatus.APPROVED)).thenReturn(1);
+        Mockito.when(bookingRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(updatedBooking));
 
 
         ResponseBooking actual = bookingService.updateBookingStatus(booking.getItem().getOwner().getId(),
                 true, booking.getId());
         ResponseBooking expected = BookingMapper.toResponseBooking(updatedBooking);
         assertEquals(expected, actual);
-        verify(bookingRepository).save(any());
+        verify(bookingRepository, never()).findByIdAndItemOwnerId(Mockito.anyLong(), Mockito.anyLong());
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    public void updateBookingStatus_whenRejected_thenPeriodReleased() {
+        Booking booking = getTestBooking();
+        Booking updatedBooking = getTestBooking();
+        updatedBooking.setStatus(BookingStatus.REJECTED);
+
+        Mockito.when(bookingRepository.updateStatus(booking.getId(), booking.getItem().getOwner().getId(),
+                BookingStatus.WAITING, BookingStatus.REJECTED)).thenReturn(1);
+        Mockito.when(bookingRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(updatedBooking));
+
+        ResponseBooking actual = bookingService.updateBookingStatus(booking.getItem().getOwner().getId(),
+                false, booking.getId());
+        assertEquals(BookingStatus.REJECTED, actual.getStatus());
+        verify(bookingCalendar).release(updatedBooking);
+        verify(itemBookingSummary).onRejected(updatedBooking);
+    }
+
+    @Test
+    public void updateBookingStatus_whenApprovedBookingRejected_thenStatusChangedConditionally() {
+        Booking booking = getTestBooking();
+        booking.setStatus(BookingStatus.APPROVED);
+        long ownerId = booking.getItem().getOwner().getId();
+
+        Mockito.when(bookingRepository.findByIdAndItemOwnerId(Mockito.anyLong(), Mockito.anyLong()))
+                .thenReturn(Optional.of(booking));
+        Mockito.when(bookingRepository.updateStatus(booking.getId(), ownerId, BookingStatus.WAITING,
+                BookingStatus.REJECTED)).thenReturn(0);
+        Mockito.when(bookingRepository.updateStatus(booking.getId(), ownerId, BookingStatus.APPROVED,
+                BookingStatus.REJECTED)).thenReturn(1);
+
+        ResponseBooking actual = bookingService.updateBookingStatus(ownerId, false, booking.getId());
+        assertEquals(BookingStatus.REJECTED, actual.getStatus());
+        verify(bookingCalendar).release(booking);
+    }
+
+    @Test
+    public void updateBookingStatus_whenStatusChangedConcurrently_thenConflictExceptionThrown() {
+        Booking booking = getTestBooking();
+        booking.setStatus(BookingStatus.APPROVED);
+        long ownerId = booking.getItem().getOwner().getId();
+
+        Mockito.when(bookingRepository.findByIdAndItemOwnerId(Mockito.anyLong(), Mockito.anyLong()))
+                .thenReturn(Optional.of(booking));
+
+        assertThrows(ConflictException.class, () -> bookingService.updateBookingStatus(ownerId, false,
+                booking.getId()));
+        verify(bookingCalendar, never()).release(any());
+    }
+
+    @Test
+    public void updateBookingStatus_whenRejectedBookingApprovedAndPeriodTaken_thenIllegalOperationExceptionThrown() {
+        Booking booking = getTestBooking();
+        booking.setStatus(BookingStatus.REJECTED);
+
+        Mockito.when(bookingRepository.findByIdAndItemOwnerId(Mockito.anyLong(), Mockito.anyLong()))
+                .thenReturn(Optional.of(booking));
+        Mockito.when(bookingCalendar.isFree(Mockito.anyLong(), Mockito.any(), Mockito.any())).thenReturn(false);
+
+        assertThrows(IllegalOperationException.class, () -> bookingService.updateBookingStatus(
+                booking.getItem().getOwner().getId(), true, booking.getId()));
+        verify(bookingRepository, never()).save(any());
     }
 
     @Test
@@ -173,16 +316,16 @@ public class BookingServiceTest {
         Booking pastBooking = getTestBooking2();
 
         Mockito.when(userRepository.existsUserById(Mockito.anyLong())).thenReturn(true);
-        Mockito.when(bookingRepository.findByBooker_IdAndEndIsBeforeOrderByStartDesc(Mockito.anyLong(), Mockito.any(),
-                Mockito.any())).thenReturn(new PageImpl<>(List.of(pastBooking)));
+        Mockito.when(bookingRepository.findBookerResponses(Mockito.anyLong(), Mockito.any(), Mockito.any(), Mockito.anyInt(),
+                Mockito.anyInt())).thenReturn(List.of(BookingMapper.toResponseBooking(pastBooking)));
 
         Iterable<ResponseBooking> actualBooking = bookingService.getAllBookingsByBooker(BookingState.PAST,
                 pastBooking.getBooker().getId(), 0, 10);
         assertThat(actualBooking, iterableWithSize(1));
         assertThat(actualBooking, contains(BookingMapper.toResponseBooking(pastBooking)));
 
-        verify(bookingRepository).findByBooker_IdAndEndIsBeforeOrderByStartDesc(Mockito.anyLong(), Mockito.any(),
-                Mockito.any());
+        verify(bookingRepository).findBookerResponses(Mockito.anyLong(), Mockito.eq(BookingState.PAST), Mockito.any(),
+                Mockito.eq(0), Mockito.eq(10));
     }
 
     @Test
@@ -190,17 +333,16 @@ public class BookingServiceTest {
         Booking currentBooking = getTestBooking4();
 
         Mockito.when(userRepository.existsUserById(Mockito.anyLong())).thenReturn(true);
-        Mockito.when(bookingRepository
-                .findByBooker_IdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(Mockito.anyLong(), Mockito.any(), Mockito.any(),
-                Mockito.any())).thenReturn(new PageImpl<>(List.of(currentBooking)));
+        Mockito.when(bookingRepository.findBookerResponses(Mockito.anyLong(), Mockito.any(), Mockito.any(), Mockito.anyInt(),
+                Mockito.anyInt())).thenReturn(List.of(BookingMapper.toResponseBooking(currentBooking)));
 
         Iterable<ResponseBooking> actualBooking = bookingService.getAllBookingsByBooker(BookingState.CURRENT,
                 currentBooking.getBooker().getId(), 0, 10);
         assertThat(actualBooking, iterableWithSize(1));
         assertThat(actualBooking, contains(BookingMapper.toResponseBooking(currentBooking)));
 
-        verify(bookingRepository).findByBooker_IdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(Mockito.anyLong(), Mockito.any(), Mockito.any(),
-                Mockito.any());
+        verify(bookingRepository).findBookerResponses(Mockito.anyLong(), Mockito.eq(BookingState.CURRENT), Mockito.any(),
+                Mockito.eq(0), Mockito.eq(10));
     }
 
     @Test
@@ -208,16 +350,16 @@ public class BookingServiceTest {
         Booking futureBooking = getTestBooking();
 
         Mockito.when(userRepository.existsUserById(Mockito.anyLong())).thenReturn(true);
-        Mockito.when(bookingRepository
-                .findByBooker_IdAndStartIsAfterOrderByStartDesc(Mockito.anyLong(), Mockito.any(), Mockito.any()))
-                .thenReturn(new PageImpl<>(List.of(futureBooking)));
+        Mockito.when(bookingRepository.findBookerResponses(Mockito.anyLong(), Mockito.any(), Mockito.any(), Mockito.anyInt(),
+                Mockito.anyInt())).thenReturn(List.of(BookingMapper.toResponseBooking(futureBooking)));
 
         Iterable<ResponseBooking> actualBooking = bookingService.getAllBookingsByBooker(BookingState.FUTURE,
                 futureBooking.getBooker().getId(), 0, 10);
         assertThat(actualBooking, iterableWithSize(1));
         assertThat(actualBooking, contains(BookingMapper.toResponseBooking(futureBooking)));
 
-        verify(bookingRepository).findByBooker_IdAndStartIsAfterOrderByStartDesc(Mockito.anyLong(), Mockito.any(), Mockito.any());
+        verify(bookingRepository).findBookerResponses(Mockito.anyLong(), Mockito.eq(BookingState.FUTURE), Mockito.any(),
+                Mockito.eq(0), Mockito.eq(10));
     }
 
     @Test
@@ -225,16 +367,16 @@ public class BookingServiceTest {
         Booking bookingRejected = getTestBooking2();
 
         Mockito.when(userRepository.existsUserById(Mockito.anyLong())).thenReturn(true);
-        Mockito.when(bookingRepository
-                        .findByBooker_IdAndStatusOrderByStartDesc(Mockito.anyLong(), Mockito.any(), Mockito.any()))
-                .thenReturn(new PageImpl<>(List.of(bookingRejected)));
+        Mockito.when(bookingRepository.findBookerResponses(Mockito.anyLong(), Mockito.any(), Mockito.any(), Mockito.anyInt(),
+                Mockito.anyInt())).thenReturn(List.of(BookingMapper.toResponseBooking(bookingRejected)));
 
         Iterable<ResponseBooking> actualBooking = bookingService.getAllBookingsByBooker(BookingState.REJECTED,
                 bookingRejected.getBooker().getId(), 0, 10);
         assertThat(actualBooking, iterableWithSize(1));
         assertThat(actualBooking, contains(BookingMapper.toResponseBooking(bookingRejected)));
 
-        verify(bookingRepository).findByBooker_IdAndStatusOrderByStartDesc(Mockito.anyLong(), Mockito.any(), Mockito.any());
+        verify(bookingRepository).findBookerResponses(Mockito.anyLong(), Mockito.eq(BookingState.REJECTED), Mockito.any(),
+                Mockito.eq(0), Mockito.eq(10));
     }
 
     @Test
@@ -242,16 +384,69 @@ public class BookingServiceTest {
         Booking booking = getTestBooking2();
 
         Mockito.when(userRepository.existsUserById(Mockito.anyLong())).thenReturn(true);
-        Mockito.when(bookingRepository
-                        .findByBooker_IdOrderByStartDesc(Mockito.anyLong(), Mockito.any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        Mockito.when(bookingRepository.findBookerResponses(Mockito.anyLong(), Mockito.any(), Mockito.any(), Mockito.anyInt(),
+                Mockito.anyInt())).thenReturn(List.of(BookingMapper.toResponseBooking(booking)));
 
         Iterable<ResponseBooking> actualBooking = bookingService.getAllBookingsByBooker(BookingState.ALL,
                 booking.getBooker().getId(), 0, 10);
         assertThat(actualBooking, iterableWithSize(1));
         assertThat(actualBooking, contains(BookingMapper.toResponseBooking(booking)));
 
-        verify(bookingRepository).findByBooker_IdOrderByStartDesc(Mockito.anyLong(), Mockito.any());
+        verify(bookingRepository).findBookerResponses(Mockito.anyLong(), Mockito.eq(BookingState.ALL), Mockito.any(),
+                Mockito.eq(0), Mockito.eq(10));
+    }
+
+    @Test
+    public void getBookingSliceByBooker_whenMoreBookingsLeft_thenNextCursorReturned() {
+        Booking booking = getTestBooking();
+        Booking booking3 = getTestBooking3();
+
+        Mockito.when(userRepository.existsUserById(Mockito.anyLong())).thenReturn(true);
+        Mockito.when(bookingRepository.findBookerSlice(Mockito.anyLong(), Mockito.any(), Mockito.any(),
+                Mockito.isNull(), Mockito.eq(2))).thenReturn(List.of(BookingMapper.toResponseBooking(booking3),
+                BookingMapper.toResponseBooking(booking)));
+
+        BookingSlice slice = bookingService.getBookingSliceByBooker(BookingState.ALL, 2, null, 1);
+
+        assertThat(slice.getBookings(), contains(BookingMapper.toResponseBooking(booking3)));
+        assertEquals(BookingCursor.of(booking3), BookingCursor.decode(slice.getNextCursor()));
+    }
+
+    @Test
+    public void getBookingSliceByItemOwner_whenCursorGiven_thenPassedDecoded() {
+        Booking booking = getTestBooking();
+        String cursor = BookingCursor.of(getTestBooking3()).encode();
+
+        Mockito.when(userRepository.existsUserById(Mockito.anyLong())).thenReturn(true);
+        Mockito.when(bookingRepository.findOwnerSlice(Mockito.anyLong(), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.anyInt())).thenReturn(List.of(BookingMapper.toResponseBooking(booking)));
+
+        BookingSlice slice = bookingService.getBookingSliceByItemOwner(BookingState.ALL, 1, cursor, 10);
+
+        assertThat(slice.getBookings(), contains(BookingMapper.toResponseBooking(booking)));
+        assertNull(slice.getNextCursor());
+        verify(bookingRepository).findOwnerSlice(Mockito.eq(1L), Mockito.eq(BookingState.ALL), Mockito.any(),
+                Mockito.eq(BookingCursor.of(getTestBooking3())), Mockito.eq(11));
+    }
+
+    @Test
+    public void countBookingsByBooker_whenCountedRecently_thenServedFromCache() {
+        Mockito.when(bookingRepository.countBooker(Mockito.eq(1L), Mockito.eq(BookingState.ALL), Mockito.any()))
+                .thenReturn(3L);
+
+        assertEquals(3L, bookingService.countBookingsByBooker(BookingState.ALL, 1));
+        assertEquals(3L, bookingService.countBookingsByBooker(BookingState.ALL, 1));
+        verify(bookingRepository, times(1)).countBooker(Mockito.eq(1L), Mockito.eq(BookingState.ALL),
+                Mockito.any());
+        verify(bookingRepository, never()).countOwner(Mockito.anyLong(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void getBookingSliceByBooker_whenCursorIsInvalid_thenIllegalOperationExceptionThrown() {
+        Mockito.when(userRepository.existsUserById(Mockito.anyLong())).thenReturn(true);
+
+        assertThrows(IllegalOperationException.class, () -> bookingService.getBookingSliceByBooker(BookingState.ALL,
+                2, "not a cursor", 10));
     }
 
     @Test
@@ -259,16 +454,16 @@ public class BookingServiceTest {
         Booking bookingWaiting = getTestBooking();
 
         Mockito.when(userRepository.existsUserById(Mockito.anyLong())).thenReturn(true);
-        Mockito.when(bookingRepository
-                        .findByBooker_IdAndStatusOrderByStartDesc(Mockito.anyLong(), Mockito.any(), Mockito.any()))
-                .thenReturn(new PageImpl<>(List.of(bookingWaiting)));
+        Mockito.when(bookingRepository.findBookerResponses(Mockito.anyLong(), Mockito.any(), Mockito.any(), Mockito.anyInt(),
+                Mockito.anyInt())).thenReturn(List.of(BookingMapper.toResponseBooking(bookingWaiting)));
 
         Iterable<ResponseBooking> actualBooking = bookingService.getAllBookingsByBooker(BookingState.WAITING,
                 bookingWaiting.getBooker().getId(), 0, 10);
         assertThat(actualBooking, iterableWithSize(1));
         assertThat(actualBooking, contains(BookingMapper.toResponseBooking(bookingWaiting)));
 
-        verify(bookingRepository).findByBooker_IdAndStatusOrderByStartDesc(Mockito.anyLong(), Mockito.any(), Mockito.any());
+        verify(bookingRepository).findBookerResponses(Mockito.anyLong(), Mockito.eq(BookingState.WAITING), Mockito.any(),
+                Mockito.eq(0), Mockito.eq(10));
     }
 
     @Test
@@ -285,16 +480,16 @@ public class BookingServiceTest {
         Booking pastBooking = getTestBooking2();
 
         Mockito.when(userRepository.existsUserById(Mockito.anyLong())).thenReturn(true);
-        Mockito.when(bookingRepository.findByOwner_IdAndStatePast(Mockito.anyLong(), Mockito.any(),
-                Mockito.any())).thenReturn(new PageImpl<>(List.of(pastBooking)));
+        Mockito.when(bookingRepository.findOwnerResponses(Mockito.anyLong(), Mockito.any(), Mockito.any(), Mockito.anyInt(),
+                Mockito.anyInt())).thenReturn(List.of(BookingMapper.toResponseBooking(pastBooking)));
 
         Iterable<ResponseBooking> actualBooking = bookingService.getAllBookingsByItemOwner(BookingState.PAST,
                 pastBooking.getBooker().getId(), 0, 10);
         assertThat(actualBooking, iterableWithSize(1));
         assertThat(actualBooking, contains(BookingMapper.toResponseBooking(pastBooking)));
 
-        verify(bookingRepository).findByOwner_IdAndStatePast(Mockito.anyLong(), Mockito.any(),
-                Mockito.any());
+        verify(bookingRepository).findOwnerResponses(Mockito.anyLong(), Mockito.eq(BookingState.PAST), Mockito.any(),
+                Mockito.eq(0), Mockito.eq(10));
     }
 
     @Test
@@ -302,17 +497,16 @@ public class BookingServiceTest {
         Booking currentBooking = getTestBooking4();
 
         Mockito.when(userRepository.existsUserById(Mockito.anyLong())).thenReturn(true);
-        Mockito.when(bookingRepository
-                .findByOwner_IdAndStateCurrent(Mockito.anyLong(), Mockito.any(), Mockito.any(),
-                        Mockito.any())).thenReturn(new PageImpl<>(List.of(currentBooking)));
+        Mockito.when(bookingRepository.findOwnerResponses(Mockito.anyLong(), Mockito.any(), Mockito.any(), Mockito.anyInt(),
+                Mockito.anyInt())).thenReturn(List.of(BookingMapper.toResponseBooking(currentBooking)));
 
         Iterable<ResponseBooking> actualBooking = bookingService.getAllBookingsByItemOwner(BookingState.CURRENT,
                 currentBooking.getBooker().getId(), 0, 10);
         assertThat(actualBooking, iterableWithSize(1));
         assertThat(actualBooking, contains(BookingMapper.toResponseBooking(currentBooking)));
 
-        verify(bookingRepository).findByOwner_IdAndStateCurrent(Mockito.anyLong(), Mockito.any(), Mockito.any(),
-                Mockito.any());
+        verify(bookingRepository).findOwnerResponses(Mockito.anyLong(), Mockito.eq(BookingState.CURRENT), Mockito.any(),
+                Mockito.eq(0), Mockito.eq(10));
     }
 
     @Test
@@ -320,16 +514,16 @@ public class BookingServiceTest {
         Booking futureBooking = getTestBooking();
 
         Mockito.when(userRepository.existsUserById(Mockito.anyLong())).thenReturn(true);
-        Mockito.when(bookingRepository
-                        .findByOwner_IdAndStateFuture(Mockito.anyLong(), Mockito.any(), Mockito.any()))
-                .thenReturn(new PageImpl<>(List.of(futureBooking)));
+        Mockito.when(bookingRepository.findOwnerResponses(Mockito.anyLong(), Mockito.any(), Mockito.any(), Mockito.anyInt(),
+                Mockito.anyInt())).thenReturn(List.of(BookingMapper.toResponseBooking(futureBooking)));
 
         Iterable<ResponseBooking> actualBooking = bookingService.getAllBookingsByItemOwner(BookingState.FUTURE,
                 futureBooking.getBooker().getId(), 0, 10);
         assertThat(actualBooking, iterableWithSize(1));
         assertThat(actualBooking, contains(BookingMapper.toResponseBooking(futureBooking)));
 
-        verify(bookingRepository).findByOwner_IdAndStateFuture(Mockito.anyLong(), Mockito.any(), Mockito.any());
+        verify(bookingRepository).findOwnerResponses(Mockito.anyLong(), Mockito.eq(BookingState.FUTURE), Mockito.any(),
+                Mockito.eq(0), Mockito.eq(10));
     }
 
     @Test
@@ -337,16 +531,16 @@ public class BookingServiceTest {
         Booking bookingRejected = getTestBooking2();
 
         Mockito.when(userRepository.existsUserById(Mockito.anyLong())).thenReturn(true);
-        Mockito.when(bookingRepository
-                        .findByOwner_IdAndStatus(Mockito.anyLong(), Mockito.any(), Mockito.any()))
-                .thenReturn(new PageImpl<>(List.of(bookingRejected)));
+        Mockito.when(bookingRepository.findOwnerResponses(Mockito.anyLong(), Mockito.any(), Mockito.any(), Mockito.anyInt(),
+                Mockito.anyInt())).thenReturn(List.of(BookingMapper.toResponseBooking(bookingRejected)));
 
         Iterable<ResponseBooking> actualBooking = bookingService.getAllBookingsByItemOwner(BookingState.REJECTED,
                 bookingRejected.getBooker().getId(), 0, 10);
         assertThat(actualBooking, iterableWithSize(1));
         assertThat(actualBooking, contains(BookingMapper.toResponseBooking(bookingRejected)));
 
-        verify(bookingRepository).findByOwner_IdAndStatus(Mockito.anyLong(), Mockito.any(), Mockito.any());
+        verify(bookingRepository).findOwnerResponses(Mockito.anyLong(), Mockito.eq(BookingState.REJECTED), Mockito.any(),
+                Mockito.eq(0), Mockito.eq(10));
     }
 
     @Test
@@ -354,16 +548,16 @@ public class BookingServiceTest {
         Booking booking = getTestBooking2();
 
         Mockito.when(userRepository.existsUserById(Mockito.anyLong())).thenReturn(true);
-        Mockito.when(bookingRepository
-                        .findByOwner_IdOrderByStartDesc(Mockito.anyLong(), Mockito.any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        Mockito.when(bookingRepository.findOwnerResponses(Mockito.anyLong(), Mockito.any(), Mockito.any(), Mockito.anyInt(),
+                Mockito.anyInt())).thenReturn(List.of(BookingMapper.toResponseBooking(booking)));
 
         Iterable<ResponseBooking> actualBooking = bookingService.getAllBookingsByItemOwner(BookingState.ALL,
                 booking.getBooker().getId(), 0, 10);
         assertThat(actualBooking, iterableWithSize(1));
         assertThat(actualBooking, contains(BookingMapper.toResponseBooking(booking)));
 
-        verify(bookingRepository).findByOwner_IdOrderByStartDesc(Mockito.anyLong(), Mockito.any());
+        verify(bookingRepository).findOwnerResponses(Mockito.anyLong(), Mockito.eq(BookingState.ALL), Mockito.any(),
+                Mockito.eq(0), Mockito.eq(10));
     }
 
     @Test
@@ -371,16 +565,16 @@ public class BookingServiceTest {
         Booking bookingWaiting = getTestBooking();
 
         Mockito.when(userRepository.existsUserById(Mockito.anyLong())).thenReturn(true);
-        Mockito.when(bookingRepository
-                        .findByOwner_IdAndStatus(Mockito.anyLong(), Mockito.any(), Mockito.any()))
-                .thenReturn(new PageImpl<>(List.of(bookingWaiting)));
+        Mockito.when(bookingRepository.findOwnerResponses(Mockito.anyLong(), Mockito.any(), Mockito.any(), Mockito.anyInt(),
+                Mockito.anyInt())).thenReturn(List.of(BookingMapper.toResponseBooking(bookingWaiting)));
 
         Iterable<ResponseBooking> actualBooking = bookingService.getAllBookingsByItemOwner(BookingState.WAITING,
                 bookingWaiting.getBooker().getId(), 0, 10);
         assertThat(actualBooking, iterableWithSize(1));
         assertThat(actualBooking, contains(BookingMapper.toResponseBooking(bookingWaiting)));
 
-        verify(bookingRepository).findByOwner_IdAndStatus(Mockito.anyLong(), Mockito.any(), Mockito.any());
+        verify(bookingRepository).findOwnerResponses(Mockito.anyLong(), Mockito.eq(BookingState.WAITING), Mockito.any(),
+                Mockito.eq(0), Mockito.eq(10));
     }
 
     private Booking getTestBooking() {
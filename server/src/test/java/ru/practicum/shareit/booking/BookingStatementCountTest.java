@@ -0,0 +1,136 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts the JDBC statements behind every booking endpoint with Hibernate statistics.
+ * Bookings are spread over several items, bookers and requests, so a lazily loaded association that is not part
+ * of the query shows up as extra statements growing with the page size.
+ */
+@SpringBootTest(properties = {"db.name=test", "spring.jpa.properties.hibernate.generate_statistics=true"})
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingStatementCountTest {
+    private static final int BOOKINGS = 24;
+
+    private final MockMvc mvc;
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final BookingRepository bookingRepository;
+    private final List<User> users = new ArrayList<>();
+    private User owner;
+    private User booker;
+    private long bookingId;
+
+    @BeforeEach
+    public void beforeEach() {
+        owner = saveUser("count-owner@mail.ru");
+        List<User> bookers = List.of(saveUser("count-booker1@mail.ru"), saveUser("count-booker2@mail.ru"),
+                saveUser("count-booker3@mail.ru"));
+        booker = bookers.get(0);
+
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            ItemRequest request = new ItemRequest();
+            request.setDescription("Need item " + i);
+            request.setRequestor(bookers.get(i % bookers.size()));
+            items.add(itemRepository.save(new Item(null, "Item " + i, "Description " + i, true, owner,
+                    itemRequestRepository.save(request), null)));
+        }
+
+        LocalDateTime start = LocalDateTime.now().minusDays(BOOKINGS / 2).withNano(0);
+        for (int i = 0; i < BOOKINGS; i++) {
+            Booking booking = new Booking();
+            booking.setStart(start.plusDays(i));
+            booking.setEnd(start.plusDays(i).plusHours(12));
+            booking.setItem(items.get(i % items.size()));
+            booking.setBooker(i % 2 == 0 ? booker : bookers.get(1 + i % 4 / 2));
+            booking.setStatus(BookingStatus.WAITING);
+            bookingId = bookingRepository.save(booking).getId();
+        }
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    public void getAllByBooker_whenPageGrows_thenStatementCountStaysTheSame() throws Exception {
+        assertEquals(2, countStatements(get("/bookings").param("size", "1"), booker, 1));
+        assertEquals(2, countStatements(get("/bookings").param("size", "20"), booker, BOOKINGS / 2));
+        assertEquals(2, countStatements(get("/bookings").param("state", "PAST").param("size", "20"), booker,
+                BOOKINGS / 4));
+    }
+
+    @Test
+    public void getAllByItemOwner_whenPageGrows_thenStatementCountStaysTheSame() throws Exception {
+        assertEquals(2, countStatements(get("/bookings/owner").param("size", "1"), owner, 1));
+        assertEquals(2, countStatements(get("/bookings/owner").param("size", "20"), owner, 20));
+        assertEquals(2, countStatements(get("/bookings/owner").param("state", "WAITING").param("size", "20"),
+                owner, 20));
+    }
+
+    @Test
+    public void getSlices_whenPageGrows_thenStatementCountStaysTheSame() throws Exception {
+        assertEquals(2, countStatements(get("/bookings").param("cursor", "").param("size", "1"), booker, 1));
+        assertEquals(2, countStatements(get("/bookings/owner").param("cursor", "").param("size", "20"), owner,
+                20));
+    }
+
+    @Test
+    public void getBookingById_thenOneStatement() throws Exception {
+        assertEquals(1, countStatements(get("/bookings/" + bookingId), owner, null));
+    }
+
+    private long countStatements(MockHttpServletRequestBuilder request, User user, Integer expectedSize)
+            throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mvc.perform(request
+                        .header("X-Sharer-User-Id", user.getId())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(expectedSize == null ? jsonPath("$.id").exists() : jsonPath("$", hasSize(expectedSize)));
+        return statistics.getPrepareStatementCount();
+    }
+
+    private User saveUser(String email) {
+        User user = userRepository.save(new User(null, email.substring(0, email.indexOf('@')), email));
+        users.add(user);
+        return user;
+    }
+}
@@ -0,0 +1,221 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
+import ru.practicum.shareit.booking.summary.ItemBookingView;
+import ru.practicum.shareit.booking.summary.ItemBookings;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemBookingSummaryTest {
+    private static final int MAX_ITEMS = 3;
+
+    @Mock
+    private BookingRepository bookingRepository;
+    private ItemBookingSummary itemBookingSummary;
+
+    @BeforeEach
+    void beforeEach() {
+        itemBookingSummary = new ItemBookingSummary(bookingRepository, MAX_ITEMS);
+    }
+
+    @Test
+    public void getBookings_whenReadTwice_thenLoadedOnce() {
+        Booking last = getBooking(1L, LocalDateTime.now().minusDays(2));
+        Booking next = getBooking(2L, LocalDateTime.now().plusDays(2));
+        Mockito.when(bookingRepository.findFirstBookingByItem_IdAndStatusNotAndStartBeforeOrderByStartDesc(anyLong(),
+                eq(BookingStatus.REJECTED), any())).thenReturn(Optional.of(last));
+        Mockito.when(bookingRepository.findFirstBookingByItem_IdAndStatusNotAndStartAfterOrderByStartAsc(anyLong(),
+                eq(BookingStatus.REJECTED), any())).thenReturn(Optional.of(next));
+
+        assertEquals(1L, itemBookingSummary.getBookings(1).getLast().getId());
+        assertEquals(2L, itemBookingSummary.getBookings(1).getNext().getId());
+        assertEquals(1L, itemBookingSummary.getBookings(1).getLast().getId());
+        verify(bookingRepository, times(1))
+                .findFirstBookingByItem_IdAndStatusNotAndStartAfterOrderByStartAsc(anyLong(), any(), any());
+    }
+
+    @Test
+    public void getBookings_whenBookedWhileLoading_thenLoadedOncePerRead() {
+        Booking next = getBooking(2L, LocalDateTime.now().plusDays(2));
+        Mockito.when(bookingRepository.findFirstBookingByItem_IdAndStatusNotAndStartBeforeOrderByStartDesc(anyLong(),
+                any(), any())).thenAnswer(invocation -> {
+                    itemBookingSummary.onBooked(next);
+                    return Optional.empty();
+                });
+        Mockito.when(bookingRepository.findFirstBookingByItem_IdAndStatusNotAndStartAfterOrderByStartAsc(anyLong(),
+                any(), any())).thenReturn(Optional.of(next));
+
+        ItemBookings bookings = itemBookingSummary.getBookings(1);
+
+        assertNull(bookings.getLast());
+        assertEquals(2L, bookings.getNext().getId());
+        verify(bookingRepository, times(1))
+                .findFirstBookingByItem_IdAndStatusNotAndStartBeforeOrderByStartDesc(anyLong(), any(), any());
+        verify(bookingRepository, times(1))
+                .findFirstBookingByItem_IdAndStatusNotAndStartAfterOrderByStartAsc(anyLong(), any(), any());
+    }
+
+    @Test
+    public void onBooked_whenBookingStartsBeforeNext_thenBecomesNext() {
+        Mockito.when(bookingRepository.findFirstBookingByItem_IdAndStatusNotAndStartBeforeOrderByStartDesc(anyLong(),
+                any(), any())).thenReturn(Optional.empty());
+        Mockito.when(bookingRepository.findFirstBookingByItem_IdAndStatusNotAndStartAfterOrderByStartAsc(anyLong(),
+                any(), any())).thenReturn(Optional.of(getBooking(2L, LocalDateTime.now().plusDays(5))));
+        itemBookingSummary.getBookings(1);
+
+        itemBookingSummary.onBooked(getBooking(3L, LocalDateTime.now().plusDays(1)));
+        itemBookingSummary.onBooked(getBooking(4L, LocalDateTime.now().plusDays(3)));
+
+        BookingDto next = itemBookingSummary.getBookings(1).getNext();
+        assertEquals(3L, next.getId());
+        assertEquals(2L, next.getBookerId());
+        assertNull(itemBookingSummary.getBookings(1).getLast());
+    }
+
+    @Test
+    public void onRejected_whenSummaryLoaded_thenLoadedAgain() {
+        Mockito.when(bookingRepository.findFirstBookingByItem_IdAndStatusNotAndStartBeforeOrderByStartDesc(anyLong(),
+                any(), any())).thenReturn(Optional.empty());
+        Mockito.when(bookingRepository.findFirstBookingByItem_IdAndStatusNotAndStartAfterOrderByStartAsc(anyLong(),
+                any(), any())).thenReturn(Optional.of(getBooking(2L, LocalDateTime.now().plusDays(1))))
+                .thenReturn(Optional.empty());
+        itemBookingSummary.getBookings(1);
+
+        itemBookingSummary.onRejected(getBooking(2L, LocalDateTime.now().plusDays(1)));
+
+        assertNull(itemBookingSummary.getBookings(1).getNext());
+    }
+
+    @Test
+    public void advance_whenNextBookingStarted_thenSummaryMovedForward() throws InterruptedException {
+        Booking soon = getBooking(2L, LocalDateTime.now().plusNanos(50_000_000));
+        Mockito.when(bookingRepository.findFirstBookingByItem_IdAndStatusNotAndStartBeforeOrderByStartDesc(anyLong(),
+                any(), any())).thenReturn(Optional.empty()).thenReturn(Optional.of(soon));
+        Mockito.when(bookingRepository.findFirstBookingByItem_IdAndStatusNotAndStartAfterOrderByStartAsc(anyLong(),
+                any(), any())).thenReturn(Optional.of(soon)).thenReturn(Optional.empty());
+        itemBookingSummary.getBookings(1);
+
+        Thread.sleep(100);
+        itemBookingSummary.advance();
+
+        assertEquals(2L, itemBookingSummary.getBookings(1).getLast().getId());
+        assertNull(itemBookingSummary.getBookings(1).getNext());
+        verify(bookingRepository, times(2))
+                .findFirstBookingByItem_IdAndStatusNotAndStartAfterOrderByStartAsc(anyLong(), any(), any());
+    }
+
+    @Test
+    public void preload_whenItemsMissing_thenLoadedWithOneQuery() {
+        LocalDateTime lastStart = LocalDateTime.now().minusDays(1);
+        Mockito.when(bookingRepository.findLastAndNextByItemIds(anyCollection(), any()))
+                .thenReturn(List.of(getView(5L, 1L, lastStart)));
+
+        itemBookingSummary.preload(List.of(1L, 2L));
+
+        assertEquals(5L, itemBookingSummary.getBookings(1).getLast().getId());
+        assertNull(itemBookingSummary.getBookings(1).getNext());
+        assertNull(itemBookingSummary.getBookings(2).getLast());
+        verify(bookingRepository, never())
+                .findFirstBookingByItem_IdAndStatusNotAndStartBeforeOrderByStartDesc(anyLong(), any(), any());
+    }
+
+    @Test
+    public void evict_whenBookingsDeleted_thenLoadedAgain() {
+        Mockito.when(bookingRepository.findFirstBookingByItem_IdAndStatusNotAndStartBeforeOrderByStartDesc(anyLong(),
+                any(), any())).thenReturn(Optional.empty());
+        Mockito.when(bookingRepository.findFirstBookingByItem_IdAndStatusNotAndStartAfterOrderByStartAsc(anyLong(),
+                any(), any())).thenReturn(Optional.of(getBooking(2L, LocalDateTime.now().plusDays(1))))
+                .thenReturn(Optional.empty());
+        assertEquals(2L, itemBookingSummary.getBookings(1).getNext().getId());
+
+        itemBookingSummary.evict(List.of(1L));
+
+        assertNull(itemBookingSummary.getBookings(1).getNext());
+    }
+
+    @Test
+    public void get_whenMoreItemsThanAllowed_thenSummariesDropped() {
+        Mockito.when(bookingRepository.findFirstBookingByItem_IdAndStatusNotAndStartBeforeOrderByStartDesc(anyLong(),
+                any(), any())).thenReturn(Optional.empty());
+        Mockito.when(bookingRepository.findFirstBookingByItem_IdAndStatusNotAndStartAfterOrderByStartAsc(anyLong(),
+                any(), any())).thenReturn(Optional.empty());
+        for (long itemId = 1; itemId <= MAX_ITEMS + 1; itemId++) {
+            itemBookingSummary.getBookings(itemId);
+        }
+
+        itemBookingSummary.getBookings(MAX_ITEMS + 1);
+        itemBookingSummary.getBookings(1);
+
+        verify(bookingRepository, times(1))
+                .findFirstBookingByItem_IdAndStatusNotAndStartAfterOrderByStartAsc(eq((long) MAX_ITEMS + 1), any(), any());
+        verify(bookingRepository, times(2))
+                .findFirstBookingByItem_IdAndStatusNotAndStartAfterOrderByStartAsc(eq(1L), any(), any());
+    }
+
+    private Booking getBooking(long id, LocalDateTime start) {
+        Item item = new Item();
+        item.setId(1L);
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setStart(start);
+        booking.setEnd(start.plusHours(1));
+        booking.setItem(item);
+        booking.setBooker(new User(2L, "Test booker", "booker@mail.ru"));
+        booking.setStatus(BookingStatus.WAITING);
+        return booking;
+    }
+
+    private ItemBookingView getView(long id, long itemId, LocalDateTime start) {
+        return new ItemBookingView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return start.plusHours(1);
+            }
+
+            @Override
+            public Long getBookerId() {
+                return 2L;
+            }
+        };
+    }
+}
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingView;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares how many bookings the owner item listing pulls into memory when the booking history of its items grows:
+ * the whole history of the items, as the listing read it before, against at most two rows per item via the
+ * window-function query.
+ */
+@Slf4j
+@DataJpaTest
+@DirtiesContext
+public class OwnerItemsBookingsBenchmarkTest {
+    private static final int ITEMS = 5;
+    private static final int[] HISTORY_SIZES = {10, 100, 1000};
+    private static final String SELECT_HISTORY = "select b from Booking b join fetch b.item join fetch b.booker " +
+            "where b.item.id in ?1";
+
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private BookingRepository bookingRepository;
+    private long allocated;
+
+    @Test
+    public void findLastAndNextByItemIds_whenHistoryGrows_thenRowsStayFlat() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        User owner = em.persist(new User(null, "Owner", "owner@mail.ru"));
+        User booker = em.persist(new User(null, "Booker", "booker@mail.ru"));
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(em.persist(new Item(null, "Item " + i, "Benchmark item", true, owner, null, null)));
+        }
+        Set<Long> itemIds = new HashSet<>();
+        items.forEach(item -> itemIds.add(item.getId()));
+
+        int history = 0;
+        long lastHistoryAllocation = 0;
+        long lastWindowAllocation = 0;
+        for (int historySize : HISTORY_SIZES) {
+            for (; history < historySize; history += 2) {
+                for (Item item : items) {
+                    // bookings close to now are rejected, so the query has to skip them
+                    BookingStatus status = history == 0 ? BookingStatus.REJECTED : BookingStatus.APPROVED;
+                    em.persist(getBooking(item, booker, now.minusHours(history + 1), status));
+                    em.persist(getBooking(item, booker, now.plusHours(history + 1), status));
+                }
+            }
+            em.flush();
+            em.clear();
+
+            List<Booking> fullHistory = measure(() -> em.getEntityManager()
+                    .createQuery(SELECT_HISTORY, Booking.class)
+                    .setParameter(1, itemIds)
+                    .getResultList());
+            lastHistoryAllocation = allocated;
+            em.clear();
+            List<ItemBookingView> lastAndNext = measure(() -> bookingRepository.findLastAndNextByItemIds(itemIds, now));
+            lastWindowAllocation = allocated;
+            em.clear();
+
+            log.info("History of {} bookings per item: whole history {} rows, {} KB allocated; " +
+                            "findLastAndNextByItemIds {} rows, {} KB allocated",
+                    historySize, fullHistory.size(), lastHistoryAllocation / 1024, lastAndNext.size(),
+                    lastWindowAllocation / 1024);
+
+            assertEquals(historySize * ITEMS, fullHistory.size());
+            assertEquals(2 * ITEMS, lastAndNext.size());
+            for (ItemBookingView view : lastAndNext) {
+                assertTrue(itemIds.contains(view.getItemId()));
+                if (view.getStart().isBefore(now)) {
+                    assertEquals(now.minusHours(3), view.getStart());
+                } else {
+                    assertEquals(now.plusHours(3), view.getStart());
+                }
+            }
+        }
+        if (lastHistoryAllocation > 0) {
+            assertTrue(lastWindowAllocation < lastHistoryAllocation);
+        }
+    }
+
+    private <T> T measure(Supplier<T> query) {
+        long before = allocatedBytes();
+        T result = query.get();
+        allocated = allocatedBytes() - before;
+        return result;
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    private Booking getBooking(Item item, User booker, LocalDateTime start, BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setStart(start);
+        booking.setEnd(start.plusMinutes(30));
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(status);
+        return booking;
+    }
+}
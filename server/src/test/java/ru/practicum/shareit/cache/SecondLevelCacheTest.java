@@ -0,0 +1,148 @@
+package ru.practicum.shareit.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs with the second-level cache switched on, as in production, and checks that repeated lookups stay in memory
+ * while updates and deletes are never served stale.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@AutoConfigureMockMvc
+@DirtiesContext
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class SecondLevelCacheTest {
+    private final MockMvc mvc;
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserService userService;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final List<User> users = new ArrayList<>();
+    private Statistics statistics;
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    public void beforeEach() {
+        owner = saveUser("cache-owner@mail.ru");
+        User requestor = saveUser("cache-requestor@mail.ru");
+        ItemRequest request = new ItemRequest();
+        request.setDescription("Need a drill");
+        request.setRequestor(requestor);
+        item = itemRepository.save(new Item(null, "Drill", "Cordless drill", true, owner,
+                itemRequestRepository.save(request), null));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        users.forEach(user -> {
+            if (userRepository.existsById(user.getId())) {
+                userRepository.deleteById(user.getId());
+            }
+        });
+    }
+
+    @Test
+    public void findById_whenRepeated_thenServedFromCache() {
+        userService.getUserById(owner.getId());
+        itemRepository.findById(item.getId());
+        long statements = statistics.getPrepareStatementCount();
+
+        userService.getUserById(owner.getId());
+        itemRepository.findById(item.getId());
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getDomainDataRegionStatistics("users").getHitCount() > 0);
+        assertTrue(statistics.getDomainDataRegionStatistics("items").getHitCount() > 0);
+    }
+
+    @Test
+    public void existsUserById_whenRepeated_thenServedFromQueryCache() {
+        assertTrue(userRepository.existsUserById(owner.getId()));
+        long statements = statistics.getPrepareStatementCount();
+
+        assertTrue(userRepository.existsUserById(owner.getId()));
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    public void partiallyUpdateUser_thenCachedUserIsUpdated() throws Exception {
+        userService.getUserById(owner.getId());
+        UserDto update = new UserDto();
+        update.setName("Renamed");
+
+        userService.partiallyUpdateUser(owner.getId(), update);
+
+        assertEquals("Renamed", userService.getUserById(owner.getId()).getName());
+    }
+
+    @Test
+    public void deleteUserById_thenUserItemsAndRequestsAreNotServedFromCache() {
+        User requestor = users.get(1);
+        assertTrue(userRepository.existsUserById(requestor.getId()));
+        long requestId = itemRepository.findById(item.getId()).orElseThrow().getRequest().getId();
+        itemRequestRepository.findById(requestId);
+
+        userService.deleteUserById(requestor.getId());
+
+        assertFalse(userRepository.existsUserById(requestor.getId()));
+        assertFalse(itemRequestRepository.findById(requestId).isPresent());
+        assertFalse(itemRepository.findById(item.getId()).isPresent());
+    }
+
+    @Test
+    public void l2cacheEndpoint_thenReportsRegionHitRatio() throws Exception {
+        userService.getUserById(owner.getId());
+        userService.getUserById(owner.getId());
+
+        mvc.perform(get("/actuator/l2cache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users.hits", greaterThan(0)))
+                .andExpect(jsonPath("$.users.hitRatio", greaterThan(0.0)))
+                .andExpect(jsonPath("$.items").exists())
+                .andExpect(jsonPath("$.requests").exists());
+    }
+
+    private User saveUser(String email) {
+        User user = userRepository.save(new User(null, email.substring(0, email.indexOf('@')), email));
+        users.add(user);
+        return user;
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hamcrest.Matchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -10,6 +11,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.FreeSlot;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
@@ -33,6 +35,8 @@ import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -113,6 +117,42 @@ public class ItemControllerTest {
         verify(itemService).getItemByIdAnyUser(1, 1);
     }
 
+    @Test
+    public void getItemByIdAnyUser_whenEtagMatches_thenNotModified() throws Exception {
+        when(itemService.getItemByIdAnyUser(anyLong(), anyLong()))
+                .thenReturn(ItemMapper.toItemWithBookingsAndCommentsDto(getTestItem(), Optional.empty(),
+                        Optional.empty(), new ArrayList<>()));
+
+        String etag = mvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", Matchers.startsWith("\"")))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 1)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 1)
+                        .header("If-None-Match", "\"outdated\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag));
+    }
+
+    @Test
+    public void searchItem_thenNoEtag() throws Exception {
+        Mockito.doReturn(List.of(itemDto)).when(itemService).searchItem(anyLong(), anyString(), anyInt(), anyInt());
+
+        mvc.perform(get("/items/search")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("text", "test"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"));
+    }
+
     @Test
     public void searchItem() throws Exception {
         List<ItemDto> itemDtos = List.of(itemDto);
@@ -144,6 +184,24 @@ public class ItemControllerTest {
         verify(itemService).searchItem(1, "", 0, 10);
     }
 
+    @Test
+    public void getFreeSlots() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 10, 9, 0);
+        LocalDateTime end = LocalDateTime.of(2030, 1, 10, 18, 0);
+        when(itemService.getFreeSlots(anyLong(), anyLong(), any(), any()))
+                .thenReturn(List.of(new FreeSlot(start, end)));
+
+        mvc.perform(get("/items/1/slots")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("start", "2030-01-10T09:00:00")
+                        .param("end", "2030-01-10T18:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].start", is("2030-01-10T09:00:00")))
+                .andExpect(jsonPath("$[0].end", is("2030-01-10T18:00:00")));
+        verify(itemService).getFreeSlots(1, 1, start, end);
+    }
+
     @Test
     public void getAllItemsOwner() throws Exception {
         ItemWithBookingsAndComments responseDto = ItemMapper.toItemWithBookingsAndCommentsDto(getTestItem(),
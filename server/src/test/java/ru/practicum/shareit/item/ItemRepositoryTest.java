@@ -9,6 +9,8 @@ import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
@@ -53,11 +55,28 @@ public class ItemRepositoryTest {
         em.persist(newItem1);
         em.persist(newItem2);
 
-        Iterable<Item> items = itemRepository.search("TEST", PageRequest.ofSize(10));
+        Iterable<ItemDto> items = itemRepository.search("TEST", PageRequest.ofSize(10));
         assertNotNull(items);
         assertThat(items, iterableWithSize(equalTo(2)));
-        assertThat(items, hasItem(newItem1));
-        assertThat(items, hasItem(newItem2));
+        assertThat(items, hasItem(ItemMapper.toItemDto(newItem1)));
+        assertThat(items, hasItem(ItemMapper.toItemDto(newItem2)));
+    }
+
+    @Test
+    public void search_whenItemUnavailable_thenNotFoundByName() {
+        Item unavailableItem = getTestItem();
+        unavailableItem.setAvailable(false);
+
+        em.persist(getTestUser1());
+        em.persist(getTestUser2());
+        em.persist(unavailableItem);
+        em.persist(getTestItem2());
+
+        Iterable<ItemDto> items = itemRepository.search("item2", PageRequest.ofSize(10));
+        assertThat(items, iterableWithSize(equalTo(1)));
+
+        items = itemRepository.search("Test item", PageRequest.ofSize(10));
+        assertThat(items, not(hasItem(hasProperty("id", equalTo(unavailableItem.getId())))));
     }
 
     private Item getTestItem() {
@@ -0,0 +1,166 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSearchView;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemSearchIndexTest {
+    @Mock
+    private ItemRepository itemRepository;
+
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void beforeEach() {
+        index = new ItemSearchIndex(itemRepository);
+    }
+
+    @Test
+    public void rebuild_loadsItemsFromRepository() {
+        Mockito.when(itemRepository.findByIdGreaterThanAndAvailableTrueOrderByIdAsc(Mockito.anyLong(), Mockito.any()))
+                .thenReturn(List.of(getView(1L, "Дрель", "Простая дрель"),
+                        getView(2L, "Отвертка", "Аккумуляторная отвертка")));
+
+        assertFalse(index.canSearch("дрель"));
+        index.rebuild();
+
+        assertTrue(index.canSearch("дрель"));
+        assertFalse(index.canSearch("  --- "));
+        assertThat(index.search("ДРЕЛЬ", 0, 10), contains(1L));
+        assertThat(index.search("аккумулятор", 0, 10), contains(2L));
+    }
+
+    @Test
+    public void search_matchesPartOfWordIgnoringCase() {
+        index.index(getItem(1L, "Дрель", "Простая дрель", true));
+        index.index(getItem(2L, "Аккумуляторная дрель", "Аккумуляторная дрель + аккумулятор", true));
+
+        assertThat(index.search("рель", 0, 10), contains(1L, 2L));
+        assertThat(index.search("АккУМУляторная", 0, 10), contains(2L));
+    }
+
+    @Test
+    public void search_ranksNameMatchesAboveDescriptionMatches() {
+        index.index(getItem(1L, "Stool", "Wooden stool, not a hammer", true));
+        index.index(getItem(2L, "Hammer", "Steel", true));
+
+        assertThat(index.search("hammer", 0, 10), contains(2L, 1L));
+    }
+
+    @Test
+    public void search_whenSeveralWords_thenAllWordsRequired() {
+        index.index(getItem(1L, "Garden hose", "Twenty meters", true));
+        index.index(getItem(2L, "Garden rake", "Metal", true));
+
+        assertThat(index.search("garden hose", 0, 10), contains(1L));
+        assertThat(index.search("garden saw", 0, 10), empty());
+    }
+
+    @Test
+    public void search_skipsUnavailableItems() {
+        index.index(getItem(1L, "Saw", "Hand saw", false));
+        index.index(getItem(2L, "Saw", "Chain saw", true));
+
+        assertThat(index.search("saw", 0, 10), contains(2L));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void index_whenAvailabilityToggled_thenItemLeavesAndReturns() {
+        index.index(getItem(1L, "Saw", "Hand saw", true));
+        index.index(getItem(1L, "Saw", "Hand saw", false));
+
+        assertThat(index.search("saw", 0, 10), empty());
+        assertEquals(0, index.size());
+
+        index.index(getItem(1L, "Saw", "Hand saw", true));
+        assertThat(index.search("saw", 0, 10), contains(1L));
+    }
+
+    @Test
+    public void search_returnsRequestedPage() {
+        for (long id = 1; id <= 5; id++) {
+            index.index(getItem(id, "Ladder " + id, "Ladder", true));
+        }
+
+        assertThat(index.search("ladder", 0, 2), contains(1L, 2L));
+        assertThat(index.search("ladder", 2, 2), contains(3L, 4L));
+        assertThat(index.search("ladder", 4, 2), contains(5L));
+        assertThat(index.search("ladder", 6, 2), empty());
+    }
+
+    @Test
+    public void index_whenItemUpdated_thenOldTermsRemoved() {
+        index.index(getItem(1L, "Tent", "Two person tent", true));
+        index.index(getItem(1L, "Kayak", "Single kayak", true));
+
+        assertThat(index.search("tent", 0, 10), empty());
+        assertThat(index.search("kayak", 0, 10), contains(1L));
+    }
+
+    @Test
+    public void evict_removesItem() {
+        index.index(getItem(1L, "Tent", "Two person tent", true));
+        index.evict(1L);
+
+        assertThat(index.search("tent", 0, 10), empty());
+    }
+
+    @Test
+    public void evictAll_removesItems() {
+        index.index(getItem(1L, "Tent", "Two person tent", true));
+        index.index(getItem(2L, "Tent", "Family tent", true));
+        index.index(getItem(3L, "Tent", "Beach tent", true));
+        index.evictAll(List.of(1L, 3L));
+
+        assertThat(index.search("tent", 0, 10), contains(2L));
+        assertEquals(1, index.size());
+    }
+
+    private Item getItem(long id, String name, String description, boolean available) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        item.setOwner(new User(1L, "Test User", "test@mail.ru"));
+        return item;
+    }
+
+    private ItemSearchView getView(long id, String name, String description) {
+        return new ItemSearchView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getDescription() {
+                return description;
+            }
+        };
+    }
+}
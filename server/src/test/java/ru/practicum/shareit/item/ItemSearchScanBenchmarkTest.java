@@ -0,0 +1,188 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.user.model.User;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the search index with the {@link ItemRepository#search} query it replaces on the same items: the rows
+ * the query reads, as counted by H2's {@code EXPLAIN ANALYZE}, against the candidates the index scores, and the
+ * time each takes. Runs on 10 000 items by default, use {@code -Dsearch.benchmark.items=1000000} for the full-size
+ * run.
+ */
+@Slf4j
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "ru.practicum.shareit.item.ItemSearchScanBenchmarkTest$CapturedStatements")
+@DirtiesContext
+public class ItemSearchScanBenchmarkTest {
+    private static final String[] NOUNS = {"drill", "saw", "ladder", "tent", "kayak", "hammer", "bike", "projector"};
+    private static final String[] ADJECTIVES = {"cordless", "old", "new", "heavy", "folding", "electric", "small"};
+    private static final String QUERY = "saw";
+    private static final int RUNS = 20;
+    private static final Pattern SCAN_COUNT = Pattern.compile("scanCount: (\\d+)");
+
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    public void search_scoresOnlyAvailableMatches() {
+        int itemCount = Integer.getInteger("search.benchmark.items", 10_000);
+        User owner = em.persist(new User(null, "Owner", "search-owner@mail.ru"));
+        List<Item> items = new ArrayList<>(itemCount);
+        for (long id = 1; id <= itemCount; id++) {
+            items.add(new Item(null, getName(id), getDescription(id), isAvailable(id), owner, null, null));
+        }
+        itemRepository.saveAll(items);
+        em.flush();
+        em.clear();
+
+        ItemSearchIndex index = new ItemSearchIndex(itemRepository);
+        index.rebuild();
+
+        long allMatches = 0;
+        Set<Long> unavailable = new HashSet<>();
+        for (Item item : items) {
+            if (!matches(item)) {
+                continue;
+            }
+            allMatches++;
+            if (!item.getAvailable()) {
+                unavailable.add(item.getId());
+            }
+        }
+
+        PageRequest all = PageRequest.ofSize(itemCount);
+        CapturedStatements.SQL.clear();
+        itemRepository.search(QUERY, all);
+        long rowsRead = countRowsRead(CapturedStatements.SQL.get(CapturedStatements.SQL.size() - 1), itemCount);
+        Set<Long> candidates = index.candidates(QUERY);
+
+        Set<Long> queried = new HashSet<>();
+        long queryMicros = measure(() -> itemRepository.search(QUERY, all).getContent(), queried);
+        Set<Long> indexed = new HashSet<>();
+        long indexMicros = measure(() -> index.search(QUERY, 0, itemCount), indexed);
+
+        log.info("Search '{}' over {} items: query reads {} rows in {} us, an unpartitioned index would score {} "
+                        + "candidates, the partitioned index scores {} in {} us, {} matches",
+                QUERY, itemCount, rowsRead, queryMicros, allMatches, candidates.size(), indexMicros, indexed.size());
+
+        assertFalse(indexed.isEmpty());
+        assertEquals(queried, indexed);
+        assertEquals(indexed, candidates);
+        assertTrue(candidates.stream().noneMatch(unavailable::contains), "Unavailable items were scored");
+        assertEquals(allMatches - unavailable.size(), candidates.size());
+        assertTrue(candidates.size() < allMatches);
+        assertTrue(allMatches < rowsRead);
+    }
+
+    private static boolean matches(Item item) {
+        String query = QUERY.toLowerCase(Locale.ROOT);
+        return item.getName().toLowerCase(Locale.ROOT).contains(query)
+                || item.getDescription().toLowerCase(Locale.ROOT).contains(query);
+    }
+
+    /**
+     * Runs the search query under {@code EXPLAIN ANALYZE} and sums the rows H2 read from every table for it.
+     * The text parameters come first, the page size last.
+     */
+    private long countRowsRead(String sql, int pageSize) {
+        int parameters = (int) sql.chars().filter(c -> c == '?').count();
+        String plan = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain analyze " + sql)) {
+                for (int i = 1; i <= parameters; i++) {
+                    if (i < parameters) {
+                        statement.setString(i, QUERY);
+                    } else {
+                        statement.setInt(i, pageSize);
+                    }
+                }
+                try (ResultSet result = statement.executeQuery()) {
+                    result.next();
+                    return result.getString(1);
+                }
+            }
+        });
+        long rows = 0;
+        Matcher scanCount = SCAN_COUNT.matcher(plan);
+        while (scanCount.find()) {
+            rows += Long.parseLong(scanCount.group(1));
+        }
+        assertTrue(rows > 0, "No scan count in the plan:\n" + plan);
+        return rows;
+    }
+
+    /**
+     * Runs the search {@value #RUNS} times after as many warm-up runs, collects the ids it found and returns
+     * the average time of one run.
+     */
+    private static long measure(Supplier<List<?>> search, Set<Long> found) {
+        for (int i = 0; i < RUNS; i++) {
+            search.get();
+        }
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            search.get();
+        }
+        long elapsedMicros = (System.nanoTime() - startedAt) / 1000 / RUNS;
+        for (Object result : search.get()) {
+            found.add(result instanceof ItemDto ? ((ItemDto) result).getId() : (Long) result);
+        }
+        return elapsedMicros;
+    }
+
+    private static String getName(long id) {
+        return ADJECTIVES[(int) (id % ADJECTIVES.length)] + " " + NOUNS[(int) (id % NOUNS.length)];
+    }
+
+    private static String getDescription(long id) {
+        return "Rent a " + NOUNS[(int) (id / 7 % NOUNS.length)] + " for the weekend";
+    }
+
+    private static boolean isAvailable(long id) {
+        return id % 3 != 0;
+    }
+
+    /**
+     * Collects every statement Hibernate prepares, Hibernate creates it by name from the test's properties.
+     */
+    public static class CapturedStatements implements StatementInspector {
+        private static final List<String> SQL = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SQL.add(sql);
+            return sql;
+        }
+    }
+}
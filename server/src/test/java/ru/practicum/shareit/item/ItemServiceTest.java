@@ -8,9 +8,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.cloud.sleuth.Tracer;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.booking.calendar.BookingCalendar;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
+import ru.practicum.shareit.booking.summary.ItemBookings;
+import ru.practicum.shareit.booking.dto.FreeSlot;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
@@ -25,6 +32,7 @@ import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.dto.ItemWithBookingsAndComments;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
@@ -36,6 +44,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -60,6 +69,14 @@ public class ItemServiceTest {
     private ItemRequestRepository itemRequestRepository;
     @Mock
     private ObjectMapper objectMapper;
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+    @Mock
+    private BookingCalendar bookingCalendar;
+    @Mock
+    private ItemBookingSummary itemBookingSummary;
+    @Mock
+    private Tracer tracer;
 
     @Test
     public void postItem_whenUIncorrectUserId_thenNotFoundExceptionThrown() {
@@ -101,6 +118,32 @@ public class ItemServiceTest {
 
         ItemDto actualItem = itemService.postItem(1, itemDto);
         assertEquals(itemDto, actualItem);
+        Mockito.verify(itemSearchIndex).index(getTestItem());
+    }
+
+    @Test
+    public void postItems_whenAllIsCorrect_thenSavedTogether() {
+        List<Item> items = List.of(getTestItem(), getTestItemWithRequest());
+        List<ItemDto> itemDtos = ItemMapper.toItemDtos(items);
+        Mockito.when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(getTestUser1()));
+        Mockito.when(itemRequestRepository.findAllById(Mockito.any())).thenReturn(List.of(getTestItemRequest()));
+        Mockito.when(itemRepository.saveAll(Mockito.any())).thenReturn(items);
+
+        assertEquals(itemDtos, itemService.postItems(1, itemDtos));
+        Mockito.verify(itemRequestRepository).findAllById(Set.of(1L));
+        Mockito.verify(itemRequestRepository, Mockito.never()).findById(Mockito.anyLong());
+        Mockito.verify(itemSearchIndex).indexAll(items);
+    }
+
+    @Test
+    public void postItems_whenRequestIsNotFound_thenNothingSaved() {
+        List<ItemDto> itemDtos = ItemMapper.toItemDtos(List.of(getTestItem(), getTestItemWithRequest()));
+        Mockito.when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(getTestUser1()));
+        Mockito.when(itemRequestRepository.findAllById(Mockito.any())).thenReturn(List.of());
+
+        assertThrows(NotFoundException.class, () -> itemService.postItems(1, itemDtos));
+        Mockito.verify(itemRepository, Mockito.never()).saveAll(Mockito.any());
+        Mockito.verifyNoInteractions(itemSearchIndex);
     }
 
     @Test
@@ -176,6 +219,7 @@ public class ItemServiceTest {
     public void getItemByIdAnyUser_whenLastAndNextBookingEmpty() {
         Mockito.when(itemRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(getTestItem()));
         Mockito.when(commentRepository.findAllByItemId(Mockito.anyLong())).thenReturn(List.of(getTestComment()));
+        Mockito.when(itemBookingSummary.getBookings(1L)).thenReturn(new ItemBookings(null, null));
 
         Optional<ItemWithBookingsAndComments> returnedItem = Optional.of(itemService.getItemByIdAnyUser(1, 1));
 
@@ -189,6 +233,19 @@ public class ItemServiceTest {
                         List.of(CommentMapper.toCommentDto(getTestComment()))));
     }
 
+    @Test
+    public void getItemByIdAnyUser_whenOwner_thenBookingsTakenFromSummary() {
+        BookingDto next = BookingMapper.toBookingDto(getTestBooking());
+        Mockito.when(itemRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(getTestItem()));
+        Mockito.when(itemBookingSummary.getBookings(1L)).thenReturn(new ItemBookings(null, next));
+
+        ItemWithBookingsAndComments item = itemService.getItemByIdAnyUser(1, 1);
+
+        assertEquals(next, item.getNextBooking());
+        assertNull(item.getLastBooking());
+        Mockito.verifyNoInteractions(bookingRepository);
+    }
+
     @Test
     public void getItemByIdAnyUser_whenItemIsNotFound_thenNotFoundExceptionThrown() {
         Mockito.when(itemRepository.findById(Mockito.anyLong())).thenReturn(Optional.empty());
@@ -201,9 +258,10 @@ public class ItemServiceTest {
     public void getAllByOwner_whenOneItemWithoutBookingsAndComments() {
         int from = 0;
         int size = 10;
-        Page<Item> items = new PageImpl<>(Collections.singletonList(getTestItem()));
+        Slice<Item> items = new SliceImpl<>(Collections.singletonList(getTestItem()));
         Mockito.when(itemRepository.findItemByOwnerId(Mockito.anyLong(), Mockito.any(Pageable.class)))
                 .thenReturn(items);
+        Mockito.when(itemBookingSummary.getBookings(1L)).thenReturn(new ItemBookings(null, null));
         List<ItemWithBookingsAndComments> returnedItems = itemService.getAllItemsOwner(1L, from, size);
 
         assertFalse(returnedItems.isEmpty());
@@ -216,11 +274,11 @@ public class ItemServiceTest {
     public void getAllByOwner_whenOneItemWithOneBookingsAndNoComments() {
         int from = 0;
         int size = 10;
-        Page<Item> items = new PageImpl<>(Collections.singletonList(getTestItem()));
+        Slice<Item> items = new SliceImpl<>(Collections.singletonList(getTestItem()));
         Mockito.when(itemRepository.findItemByOwnerId(Mockito.anyLong(), Mockito.any(Pageable.class)))
                 .thenReturn(items);
-        Mockito.when(bookingRepository.findByItem_IdIn(Mockito.anySet()))
-                .thenReturn(Collections.singletonList(getTestBooking()));
+        Mockito.when(itemBookingSummary.getBookings(1L))
+                .thenReturn(new ItemBookings(null, BookingMapper.toBookingDto(getTestBooking())));
         ItemWithBookingsAndComments expectedItem = ItemMapper.toItemWithBookingsAndCommentsDto(getTestItem(),
                 Optional.empty(), Optional.of(getTestBooking()), new ArrayList<>());
         List<ItemWithBookingsAndComments> actualItemList = itemService.getAllItemsOwner(1, from, size);
@@ -233,7 +291,7 @@ public class ItemServiceTest {
     public void getAllByOwner_whenNoItems_thenReturnEmptyList() {
         int from = 0;
         int size = 10;
-        Page<Item> items = new PageImpl<>(new ArrayList<>());
+        Slice<Item> items = new SliceImpl<>(new ArrayList<>());
 
         Mockito.when(itemRepository.findItemByOwnerId(Mockito.anyLong(), Mockito.any(Pageable.class)))
                 .thenReturn(items);
@@ -253,10 +311,75 @@ public class ItemServiceTest {
         Item item = getTestItem();
         ItemDto itemDto = ItemMapper.toItemDto(item);
 
-        Mockito.when(itemRepository.search(Mockito.anyString(), Mockito.any())).thenReturn(new PageImpl<>(List.of(item)));
+        Mockito.when(itemSearchIndex.canSearch(Mockito.anyString())).thenReturn(true);
+        Mockito.when(itemSearchIndex.search(Mockito.anyString(), Mockito.anyInt(), Mockito.anyInt()))
+                .thenReturn(List.of(item.getId()));
+        Mockito.when(itemRepository.findItemDtosByIdIn(Mockito.any())).thenReturn(List.of(itemDto));
         List<ItemDto> actual = itemService.searchItem(1, "test", 0, 10);
         assertThat(actual, hasSize(1));
         assertThat(actual, contains(itemDto));
+        Mockito.verify(itemRepository, Mockito.never()).search(Mockito.anyString(), Mockito.any());
+    }
+
+    @Test
+    public void searchItem_whenIndexedItemIsDeleted_thenItemEvicted() {
+        Mockito.when(itemSearchIndex.canSearch(Mockito.anyString())).thenReturn(true);
+        Mockito.when(itemSearchIndex.search(Mockito.anyString(), Mockito.anyInt(), Mockito.anyInt()))
+                .thenReturn(List.of(1L));
+        Mockito.when(itemRepository.findItemDtosByIdIn(Mockito.any())).thenReturn(Collections.emptyList());
+
+        List<ItemDto> actual = itemService.searchItem(1, "test", 0, 10);
+        assertTrue(actual.isEmpty());
+        Mockito.verify(itemSearchIndex).evict(1L);
+    }
+
+    @Test
+    public void searchItem_whenIndexCannotAnswer_thenRepositorySearchUsed() {
+        Item item = getTestItem();
+
+        Mockito.when(itemSearchIndex.canSearch(Mockito.anyString())).thenReturn(false);
+        Mockito.when(itemRepository.search(Mockito.anyString(), Mockito.any()))
+                .thenReturn(new SliceImpl<>(List.of(ItemMapper.toItemDto(item))));
+        List<ItemDto> actual = itemService.searchItem(1, "---", 0, 10);
+        assertThat(actual, contains(ItemMapper.toItemDto(item)));
+    }
+
+    @Test
+    public void getFreeSlots_whenUserNotFound_thenNotFoundExceptionThrown() {
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> itemService.getFreeSlots(99, 1, null, null));
+        Mockito.verify(bookingCalendar, Mockito.never()).getFreeSlots(Mockito.anyLong(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void getFreeSlots_whenItemNotFound_thenNotFoundExceptionThrown() {
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(true);
+        Mockito.when(itemRepository.existsById(Mockito.anyLong())).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> itemService.getFreeSlots(1, 99, null, null));
+    }
+
+    @Test
+    public void getFreeSlots_whenEndBeforeStart_thenIllegalOperationExceptionThrown() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 10, 0, 0);
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(true);
+        Mockito.when(itemRepository.existsById(Mockito.anyLong())).thenReturn(true);
+
+        assertThrows(IllegalOperationException.class,
+                () -> itemService.getFreeSlots(1, 1, start, start.minusDays(1)));
+    }
+
+    @Test
+    public void getFreeSlots_whenPeriodGiven_thenCalendarAsked() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 10, 0, 0);
+        LocalDateTime end = start.plusDays(1);
+        List<FreeSlot> slots = List.of(new FreeSlot(start, end));
+        Mockito.when(userRepository.existsById(Mockito.anyLong())).thenReturn(true);
+        Mockito.when(itemRepository.existsById(Mockito.anyLong())).thenReturn(true);
+        Mockito.when(bookingCalendar.getFreeSlots(1, start, end)).thenReturn(slots);
+
+        assertEquals(slots, itemService.getFreeSlots(1, 1, start, end));
     }
 
     private Item getTestItem() {
@@ -84,7 +84,7 @@ public class CommentRepositoryTest {
     private Comment getTestComment() {
         Comment comment = new Comment();
         comment.setItem(new Item(1L, "Test item", "Test item description",
-                true, new User(1L, "Test User", "test@mail.ru"), null));
+                true, new User(1L, "Test User", "test@mail.ru"), null, 0L));
         comment.setText("Test comment");
         comment.setAuthor(new User(2L, "Test user2", "test2@mail.ru"));
         comment.setCreated(LocalDateTime.of(2023, 10,25, 9,0));
@@ -7,8 +7,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.data.domain.SliceImpl;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
@@ -49,6 +51,9 @@ public class ItemRequestServiceTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private Tracer tracer;
+
     private User owner;
     private User requestor;
     private Item item;
@@ -126,7 +131,7 @@ public class ItemRequestServiceTest {
 
         when(userRepository.existsUserById(anyLong())).thenReturn(true);
         when(itemRequestRepository.findAllByRequestor_IdNot(anyLong(), any()))
-                .thenReturn(new PageImpl<>(Collections.singletonList(itemRequest2)));
+                .thenReturn(new SliceImpl<>(Collections.singletonList(itemRequest2)));
 
         Iterable<ItemRequestResponseWithItems> responseRequestWithItems = itemRequestService
                 .getAllRequestsByOtherUsers(requestor.getId(), 0, 10);
@@ -138,7 +143,7 @@ public class ItemRequestServiceTest {
     public void getRequestById() {
         when(userRepository.existsUserById(anyLong())).thenReturn(true);
         when(itemRequestRepository.findById(anyLong())).thenReturn(Optional.of(itemRequest));
-        when(itemRepository.findByRequest_Id(anyLong())).thenReturn(List.of(item));
+        when(itemRepository.findItemDtosByRequestId(anyLong())).thenReturn(List.of(ItemMapper.toItemDto(item)));
 
         ItemRequestResponseWithItems responseRequestWithItems = itemRequestService.getRequestById(owner.getId(), itemRequest.getId());
 
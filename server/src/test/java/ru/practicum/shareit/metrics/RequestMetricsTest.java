@@ -0,0 +1,78 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "db.name=test")
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class RequestMetricsTest {
+    private final MockMvc mvc;
+    private final MeterRegistry registry;
+    private final UserRepository userRepository;
+    private final BookingService bookingService;
+    private User owner;
+
+    @BeforeEach
+    public void beforeEach() {
+        owner = userRepository.save(new User(null, "Metrics owner", "metrics-owner@mail.ru"));
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        userRepository.delete(owner);
+    }
+
+    @Test
+    public void getAllByItemOwner_thenServiceRepositoryAndStatementsRecordedWithEndpointAndState() throws Exception {
+        mvc.perform(get("/bookings/owner").param("state", "WAITING").header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk());
+
+        Timer service = registry.find(ServiceTimingInterceptor.METRIC_NAME)
+                .tags("class", "BookingServiceImpl", "method", "getAllBookingsByItemOwner",
+                        "endpoint", "GET /bookings/owner", "state", "WAITING", "exception", "none")
+                .timer();
+        assertNotNull(service);
+        assertEquals(1, service.count());
+
+        Timer repository = registry.find("spring.data.repository.invocations")
+                .tags("repository", "BookingRepository", "endpoint", "GET /bookings/owner", "state", "WAITING")
+                .timer();
+        assertNotNull(repository);
+
+        DistributionSummary statements = registry.find(RequestStatementCounter.METRIC_NAME)
+                .tags("endpoint", "GET /bookings/owner")
+                .summary();
+        assertNotNull(statements);
+        assertThat(statements.totalAmount(), greaterThan(0.0));
+    }
+
+    @Test
+    public void serviceCalledOutsideOfController_thenEndpointIsNone() {
+        bookingService.countBookingsByItemOwner(BookingState.ALL, owner.getId());
+
+        assertNotNull(registry.find(ServiceTimingInterceptor.METRIC_NAME)
+                .tags("method", "countBookingsByItemOwner", "endpoint", "none")
+                .timer());
+    }
+}
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RequestStatementCounterTest {
+    private MeterRegistry registry;
+    private SqlBudgetProperties budget;
+    private RequestStatementCounter counter;
+
+    @BeforeEach
+    public void beforeEach() {
+        registry = new SimpleMeterRegistry();
+        budget = new SqlBudgetProperties();
+        budget.setMaxStatements(2);
+        budget.setMaxDbTime(Duration.ofMillis(200));
+        counter = new RequestStatementCounter(registry, budget);
+    }
+
+    @Test
+    public void doFilter_whenWithinBudget_thenRecordedAndNotOverBudget() throws Exception {
+        perform(2, 0);
+
+        assertEquals(2, registry.get(RequestStatementCounter.METRIC_NAME)
+                .tags("endpoint", "GET /items").summary().totalAmount());
+        assertNull(registry.find(RequestStatementCounter.OVER_BUDGET_METRIC_NAME).counter());
+    }
+
+    @Test
+    public void doFilter_whenOverStatementBudget_thenCounted() throws Exception {
+        perform(3, 0);
+
+        assertEquals(1, overBudget("statements").count());
+        assertNull(registry.find(RequestStatementCounter.OVER_BUDGET_METRIC_NAME).tags("budget", "db.time").counter());
+    }
+
+    @Test
+    public void doFilter_whenOverDbTimeBudget_thenCountedAndDbTimeRecorded() throws Exception {
+        perform(1, 300);
+
+        assertEquals(1, overBudget("db.time").count());
+        assertEquals(300, registry.get(RequestStatementCounter.DB_TIME_METRIC_NAME)
+                .tags("endpoint", "GET /items").timer().totalTime(TimeUnit.MILLISECONDS), 1);
+    }
+
+    @Test
+    public void doFilter_whenEndpointHasOwnBudget_thenItIsUsed() throws Exception {
+        budget.setEndpointMaxStatements(Map.of("GET /items", 1));
+
+        perform(2, 0);
+
+        assertEquals(1, overBudget("statements").count());
+    }
+
+    @Test
+    public void doFilter_whenFailOnExceeded_thenRequestOverStatementBudgetFails() {
+        budget.setFailOnExceeded(true);
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> perform(3, 0));
+        assertEquals("GET /items ran 3 statements, its budget is 2", exception.getMessage());
+    }
+
+    @Test
+    public void doFilter_whenFailOnExceeded_thenResponseOverBudgetNotSent() throws Exception {
+        budget.setFailOnExceeded(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThrows(IllegalStateException.class, () -> perform(3, 0, response));
+
+        assertFalse(response.isCommitted());
+        assertEquals("", response.getContentAsString());
+        assertNull(response.getHeader("X-Total-Count"));
+    }
+
+    @Test
+    public void doFilter_whenFailOnExceeded_thenResponseWithinBudgetSent() throws Exception {
+        budget.setFailOnExceeded(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        perform(1, 0, response);
+
+        assertEquals("[]", response.getContentAsString());
+        assertEquals("0", response.getHeader("X-Total-Count"));
+    }
+
+    @Test
+    public void doFilter_whenFailOnExceeded_thenRequestOverDbTimeBudgetDoesNotFail() throws Exception {
+        budget.setFailOnExceeded(true);
+
+        perform(1, 300);
+
+        assertEquals(1, overBudget("db.time").count());
+    }
+
+    @Test
+    public void inspect_whenOutsideOfRequest_thenNotCounted() {
+        counter.inspect("select 1");
+        RequestStatementCounter.executed(TimeUnit.SECONDS.toNanos(1));
+
+        assertNull(registry.find(RequestStatementCounter.METRIC_NAME).summary());
+    }
+
+    private void perform(int statements, long dbMillis) throws Exception {
+        perform(statements, dbMillis, new MockHttpServletResponse());
+    }
+
+    private void perform(int statements, long dbMillis, MockHttpServletResponse response) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/items");
+        counter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                for (int i = 0; i < statements; i++) {
+                    counter.inspect("select " + i);
+                }
+                RequestStatementCounter.executed(TimeUnit.MILLISECONDS.toNanos(dbMillis));
+                resp.setHeader("X-Total-Count", "0");
+                resp.getWriter().write("[]");
+                resp.flushBuffer();
+            }
+        }));
+    }
+
+    private Counter overBudget(String budgetName) {
+        Counter overBudget = registry.find(RequestStatementCounter.OVER_BUDGET_METRIC_NAME)
+                .tags("endpoint", "GET /items", "budget", budgetName)
+                .counter();
+        assertNotNull(overBudget);
+        return overBudget;
+    }
+}
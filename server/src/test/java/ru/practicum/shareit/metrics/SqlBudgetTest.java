@@ -0,0 +1,116 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Reads the item, request and comment endpoints over data where every item, request and comment has an owner,
+ * requestor or author of its own. The {@code test} profile fails requests over their SQL budget, so an association
+ * loaded once per row instead of in the query fails here.
+ */
+@SpringBootTest(properties = "db.name=test")
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class SqlBudgetTest {
+    private static final int ROWS = 6;
+
+    private final MockMvc mvc;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final List<User> users = new ArrayList<>();
+    private final List<ItemRequest> requests = new ArrayList<>();
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    public void beforeEach() {
+        owner = saveUser("budget-owner@mail.ru");
+        LocalDateTime past = LocalDateTime.now().minusDays(10).withNano(0);
+        for (int i = 0; i < ROWS; i++) {
+            User requestor = saveUser("budget-requestor" + i + "@mail.ru");
+            ItemRequest request = new ItemRequest();
+            request.setDescription("Need item " + i);
+            request.setRequestor(requestor);
+            requests.add(itemRequestRepository.save(request));
+
+            item = itemRepository.save(new Item(null, "Item " + i, "Description " + i, true, owner,
+                    requests.get(i), null));
+            Booking booking = new Booking();
+            booking.setStart(past.plusHours(i));
+            booking.setEnd(past.plusHours(i).plusMinutes(30));
+            booking.setItem(item);
+            booking.setBooker(requestor);
+            booking.setStatus(BookingStatus.APPROVED);
+            bookingRepository.save(booking);
+        }
+        for (int i = 0; i < ROWS; i++) {
+            commentRepository.save(new Comment(null, "Comment " + i, item, users.get(1 + i), LocalDateTime.now()));
+        }
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    public void getItems_thenWithinBudget() throws Exception {
+        perform(get("/items"), owner, ROWS);
+        perform(get("/items/" + item.getId()), owner, null);
+        perform(get("/items/" + item.getId()), users.get(1), null);
+    }
+
+    @Test
+    public void getRequests_thenWithinBudget() throws Exception {
+        perform(get("/requests"), users.get(1), 1);
+        perform(get("/requests/all").param("size", "20"), owner, ROWS);
+        perform(get("/requests/" + requests.get(0).getId()), owner, null);
+    }
+
+    @Test
+    public void getUsers_thenWithinBudget() throws Exception {
+        perform(get("/users/" + owner.getId()), owner, null);
+    }
+
+    private void perform(MockHttpServletRequestBuilder request, User user, Integer expectedSize) throws Exception {
+        mvc.perform(request.header("X-Sharer-User-Id", user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(expectedSize == null ? jsonPath("$.id").exists() : jsonPath("$", hasSize(expectedSize)));
+    }
+
+    private User saveUser(String email) {
+        User user = userRepository.save(new User(null, email.substring(0, email.indexOf('@')), email));
+        users.add(user);
+        return user;
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.pagination;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TotalCountCacheTest {
+
+    @Test
+    public void get_whenCountIsFresh_thenCounterNotCalledAgain() {
+        TotalCountCache cache = new TotalCountCache(60_000, 10);
+        AtomicLong calls = new AtomicLong();
+
+        assertEquals(1L, cache.get("items:owner:1", calls::incrementAndGet));
+        assertEquals(1L, cache.get("items:owner:1", calls::incrementAndGet));
+        assertEquals(2L, cache.get("items:owner:2", calls::incrementAndGet));
+        assertEquals(2L, calls.get());
+    }
+
+    @Test
+    public void get_whenCountIsExpired_thenCountedAgain() {
+        TotalCountCache cache = new TotalCountCache(0, 10);
+        AtomicLong calls = new AtomicLong();
+
+        assertEquals(1L, cache.get("items:owner:1", calls::incrementAndGet));
+        assertEquals(2L, cache.get("items:owner:1", calls::incrementAndGet));
+    }
+
+    @Test
+    public void get_whenCacheIsFull_thenStillCounts() {
+        TotalCountCache cache = new TotalCountCache(60_000, 2);
+
+        for (long userId = 1; userId <= 5; userId++) {
+            long expected = userId;
+            assertEquals(expected, cache.get("items:owner:" + userId, () -> expected));
+        }
+    }
+}
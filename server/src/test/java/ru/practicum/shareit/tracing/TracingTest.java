@@ -0,0 +1,107 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.autoconfig.actuate.BufferingSpanReporter;
+import org.springframework.cloud.sleuth.exporter.FinishedSpan;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sleuth samples at most 10 traces a second by default, every trace is sampled here so back to back requests
+ * are traced too.
+ */
+@SpringBootTest(properties = {"db.name=test", "spring.sleuth.sampler.probability=1.0"})
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class TracingTest {
+    private final MockMvc mvc;
+    private final Tracer tracer;
+    private final BufferingSpanReporter spanReporter;
+    private final UserRepository userRepository;
+    private final BookingService bookingService;
+    private User owner;
+
+    @BeforeEach
+    public void beforeEach() {
+        owner = userRepository.save(new User(null, "Tracing owner", "tracing-owner@mail.ru"));
+        spanReporter.drainFinishedSpans();
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        userRepository.delete(owner);
+    }
+
+    @Test
+    public void getAllByItemOwner_thenServiceAndRepositorySpansJoinCallersTrace() throws Exception {
+        Span request = tracer.nextSpan().name("request").start();
+        try (Tracer.SpanInScope scope = tracer.withSpan(request)) {
+            mvc.perform(get("/bookings/owner").param("state", "PAST").header("X-Sharer-User-Id", owner.getId()))
+                    .andExpect(status().isOk());
+        } finally {
+            request.end();
+        }
+
+        List<FinishedSpan> spans = spanReporter.drainFinishedSpans();
+        FinishedSpan server = find(spans, "GET /bookings/owner").orElseThrow();
+        assertEquals(request.context().traceId(), server.getTraceId());
+        assertEquals(request.context().spanId(), server.getParentId());
+
+        FinishedSpan service = find(spans, "BookingServiceImpl.getAllBookingsByItemOwner").orElseThrow();
+        assertEquals(server.getSpanId(), service.getParentId());
+
+        FinishedSpan repository = find(spans, "BookingRepository.findOwnerResponses").orElseThrow();
+        assertEquals(service.getSpanId(), repository.getParentId());
+        assertEquals("BookingRepository", repository.getTags().get("class"));
+        assertTrue(repository.getStartTimestamp() >= service.getStartTimestamp());
+        assertTrue(repository.getEndTimestamp() <= service.getEndTimestamp());
+    }
+
+    @Test
+    public void getAllItemsOwner_thenMappingSpanInsideServiceSpan() throws Exception {
+        Span request = tracer.nextSpan().name("request").start();
+        try (Tracer.SpanInScope scope = tracer.withSpan(request)) {
+            mvc.perform(get("/items").header("X-Sharer-User-Id", owner.getId()))
+                    .andExpect(status().isOk());
+        } finally {
+            request.end();
+        }
+
+        List<FinishedSpan> spans = spanReporter.drainFinishedSpans();
+        FinishedSpan service = find(spans, "ItemServiceImpl.getAllItemsOwner").orElseThrow();
+        FinishedSpan mapping = find(spans, "ItemMapper.toItemWithBookingsAndCommentsDto").orElseThrow();
+        assertEquals(service.getSpanId(), mapping.getParentId());
+        assertTrue(mapping.getStartTimestamp() >= service.getStartTimestamp());
+        assertTrue(mapping.getEndTimestamp() <= service.getEndTimestamp());
+    }
+
+    @Test
+    public void serviceCalledOutsideOfTrace_thenNoSpans() {
+        bookingService.countBookingsByItemOwner(BookingState.ALL, owner.getId());
+
+        assertTrue(find(spanReporter.drainFinishedSpans(), "BookingServiceImpl.countBookingsByItemOwner").isEmpty());
+    }
+
+    private static Optional<FinishedSpan> find(List<FinishedSpan> spans, String name) {
+        return spans.stream().filter(span -> name.equals(span.getName())).findFirst();
+    }
+}
@@ -7,8 +7,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.calendar.BookingCalendar;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
+import ru.practicum.shareit.cache.SecondLevelCache;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.UniqueEmailException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -19,6 +25,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -30,6 +37,18 @@ public class UserServiceTest {
     private UserServiceImpl userService;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private SecondLevelCache secondLevelCache;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private BookingCalendar bookingCalendar;
+    @Mock
+    private ItemBookingSummary itemBookingSummary;
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
 
     @Test
     public void postUser_whenUserWithSameEmailExists_thenUniqueEmailExceptionThrown() {
@@ -49,7 +68,16 @@ public class UserServiceTest {
 
     @Test
     public void deleteUserById() {
+       Mockito.when(itemRepository.findIdsByOwnerId(1)).thenReturn(List.of(10L));
+       Mockito.when(bookingRepository.findItemBookingsByBookerId(1)).thenReturn(List.of());
+
        userService.deleteUserById(1);
+
+       Mockito.verify(secondLevelCache).evictUser(1);
+       Mockito.verify(bookingCalendar).evict(List.of(10L));
+       Mockito.verify(itemSearchIndex).evictAll(List.of(10L));
+       Mockito.verify(bookingCalendar).releaseAll(List.of());
+       Mockito.verify(itemBookingSummary).evict(Set.of(10L));
     }
 
     @Test